@@ -0,0 +1,121 @@
+package com.picknpay.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A model, not a measurement of the application: no SaleService, Tomcat or database is involved. It shows
+ * how checkout latency behaves while admin reports run, with request handling on a fixed platform-thread
+ * pool sized like Tomcat's versus virtual threads (the virtual-threads profile). Requests are reduced to
+ * their blocking: a semaphore sized like the Hikari pool stands in for JDBC connections and Thread.sleep
+ * for statement time, so a checkout holds a "connection" for 3 ms and a report holds one for 20 ms and
+ * then only its request thread for 500 ms while its response is written. Each till waits for its checkout
+ * to complete and the sampled times are end-to-end latency in the model; compare p0.99 between the two
+ * thread settings, not against production timings.
+ * Needs Java 21, so it is only compiled when the module is built on Java 21 or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class CheckoutLatencyModelBenchmark {
+
+    // Tomcat's default server.tomcat.threads.max and the Hikari pool size in application.properties
+    private static final int PLATFORM_REQUEST_THREADS = 200;
+    private static final int CONNECTION_POOL_SIZE = 20;
+
+    // Assumed times, not measured ones
+    private static final long CHECKOUT_STATEMENTS_MILLIS = 3;
+    private static final long REPORT_QUERY_MILLIS = 20;
+    private static final long REPORT_RESPONSE_MILLIS = 500;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    // Report requests kept in flight while checkouts are measured. 400 reports need about 15 connections
+    // but more request threads than Tomcat has
+    @Param({"0", "100", "400"})
+    private int reports;
+
+    private ExecutorService requestExecutor;
+    private Semaphore connectionPool;
+    private volatile boolean running;
+
+    @Setup
+    public void setUp() {
+        requestExecutor = "virtual".equals(threads)
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(PLATFORM_REQUEST_THREADS);
+        connectionPool = new Semaphore(CONNECTION_POOL_SIZE, true);
+        running = true;
+        for (int i = 0; i < reports; i++) {
+            submitReport();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        requestExecutor.shutdownNow();
+        requestExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void checkout() throws InterruptedException, ExecutionException {
+        Future<?> response = requestExecutor.submit(() -> {
+            withConnection(CHECKOUT_STATEMENTS_MILLIS);
+            return null;
+        });
+        response.get();
+    }
+
+    // Each report is resubmitted as soon as it finishes, keeping the report load constant
+    private void submitReport() {
+        try {
+            requestExecutor.execute(() -> {
+                try {
+                    withConnection(REPORT_QUERY_MILLIS);
+                    Thread.sleep(REPORT_RESPONSE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (running) {
+                    submitReport();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down after the trial
+        }
+    }
+
+    private void withConnection(long statementMillis) throws InterruptedException {
+        connectionPool.acquire();
+        try {
+            Thread.sleep(statementMillis);
+        } finally {
+            connectionPool.release();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.picknpay.benchmarks;
+
+import com.picknpay.dto.CategorySummaryDTO;
+import com.picknpay.dto.DailyReportDTO;
+import com.picknpay.dto.VatSummaryDTO;
+import com.picknpay.entity.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReportAggregator as it was before it summed in cents: a BigDecimal add per amount and HashMaps keyed
+ * by boxed VAT rate and category name. Kept as the baseline for ReportAggregationBenchmark.
+ */
+final class BigDecimalReportAggregator {
+
+    private static final String QUICK_SALE_CATEGORY = "Quick Sale";
+
+    private long totalSales;
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private long cashSales;
+    private BigDecimal cashAmount = BigDecimal.ZERO;
+    private long cardSales;
+    private BigDecimal cardAmount = BigDecimal.ZERO;
+    private BigDecimal totalVatAmount = BigDecimal.ZERO;
+    private BigDecimal totalAmountExcludingVat = BigDecimal.ZERO;
+    private long totalQuantity;
+
+    private final Map<BigDecimal, VatSummaryDTO> vatMap = new HashMap<>();
+    private final Map<String, CategorySummaryDTO> categoryMap = new HashMap<>();
+
+    // Add sales paid with the given method; count is 1 for a single sale
+    public void addSales(PaymentMethod paymentMethod, long count, BigDecimal amount) {
+        totalSales += count;
+        totalAmount = totalAmount.add(amount);
+        if (paymentMethod == PaymentMethod.CASH) {
+            cashSales += count;
+            cashAmount = cashAmount.add(amount);
+        } else if (paymentMethod == PaymentMethod.CARD) {
+            cardSales += count;
+            cardAmount = cardAmount.add(amount);
+        }
+    }
+
+    // Fold the cash or card part of split payments into the cash/card totals
+    public void addSplitPayment(PaymentMethod paymentMethod, BigDecimal amount) {
+        if (paymentMethod == PaymentMethod.CASH) {
+            cashAmount = cashAmount.add(amount);
+        } else if (paymentMethod == PaymentMethod.CARD) {
+            cardAmount = cardAmount.add(amount);
+        }
+    }
+
+    // Add sale lines sharing a VAT rate and category; a null category means a quick sale
+    public void addLines(BigDecimal vatRate, String categoryName, long quantity,
+                         BigDecimal gross, BigDecimal vatAmount, BigDecimal priceExcludingVat) {
+        if (vatAmount != null) {
+            totalVatAmount = totalVatAmount.add(vatAmount);
+        }
+        if (priceExcludingVat != null) {
+            totalAmountExcludingVat = totalAmountExcludingVat.add(priceExcludingVat);
+        }
+
+        // Group by VAT rate for breakdown
+        if (vatRate != null) {
+            VatSummaryDTO vatSummary = vatMap.computeIfAbsent(vatRate,
+                rate -> new VatSummaryDTO(rate, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+
+            // Gross = totalPrice (including VAT), Net = priceExcludingVat
+            vatSummary.setGross(vatSummary.getGross().add(gross));
+            if (vatAmount != null) {
+                vatSummary.setVatAmount(vatSummary.getVatAmount().add(vatAmount));
+            }
+            if (priceExcludingVat != null) {
+                vatSummary.setNet(vatSummary.getNet().add(priceExcludingVat));
+            }
+        }
+
+        String name = categoryName != null ? categoryName : QUICK_SALE_CATEGORY;
+        CategorySummaryDTO categorySummary = categoryMap.computeIfAbsent(name,
+            key -> new CategorySummaryDTO(key, BigDecimal.ZERO, 0L));
+        categorySummary.setTotal(categorySummary.getTotal().add(gross));
+        categorySummary.setCount(categorySummary.getCount() + quantity);
+
+        totalQuantity += quantity;
+    }
+
+    public DailyReportDTO toReport(LocalDate reportDate) {
+        // VAT breakdown sorted by VAT rate ascending
+        List<VatSummaryDTO> vatBreakdown = new ArrayList<>(vatMap.values());
+        vatBreakdown.sort((a, b) -> a.getVatRate().compareTo(b.getVatRate()));
+
+        // Categories sorted by total descending, followed by a total row counting items sold (not transactions)
+        List<CategorySummaryDTO> categories = new ArrayList<>(categoryMap.values());
+        categories.sort((a, b) -> b.getTotal().compareTo(a.getTotal()));
+        categories.add(new CategorySummaryDTO("Total", totalAmount, totalQuantity));
+
+        DailyReportDTO report = new DailyReportDTO(reportDate, totalSales, totalAmount, cashSales, cashAmount, cardSales, cardAmount);
+        report.setTotalVatAmount(totalVatAmount);
+        report.setTotalAmountExcludingVat(totalAmountExcludingVat);
+        report.setCategories(categories);
+        report.setVatBreakdown(vatBreakdown);
+        return report;
+    }
+}
@@ -0,0 +1,65 @@
+package com.picknpay.benchmarks;
+
+import com.picknpay.dto.ItemDTO;
+import com.picknpay.entity.Item;
+import com.picknpay.service.ItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemService.convertToDTO over catalogue-sized lists, as used by the item listings and the barcode index warm-up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemBenchmark {
+
+    private static final MethodHandle CONVERT_TO_DTO;
+
+    static {
+        try {
+            CONVERT_TO_DTO = MethodHandles.privateLookupIn(ItemService.class, MethodHandles.lookup())
+                .findVirtual(ItemService.class, "convertToDTO", MethodType.methodType(ItemDTO.class, Item.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Catalogue size
+    @Param({"100", "10000", "100000"})
+    private int items;
+
+    private final ItemService itemService = new ItemService();
+    private List<Item> catalogue;
+
+    @Setup
+    public void setUp() {
+        catalogue = SyntheticData.items(items);
+    }
+
+    @Benchmark
+    public void convertToDTO(Blackhole blackhole) throws Throwable {
+        for (Item item : catalogue) {
+            blackhole.consume((ItemDTO) CONVERT_TO_DTO.invokeExact(itemService, item));
+        }
+    }
+}
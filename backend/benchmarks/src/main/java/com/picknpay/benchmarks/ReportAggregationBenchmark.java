@@ -0,0 +1,99 @@
+package com.picknpay.benchmarks;
+
+import com.picknpay.dto.DailyReportDTO;
+import com.picknpay.entity.PaymentMethod;
+import com.picknpay.service.ReportAggregator;
+import com.picknpay.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report aggregation over individual sale lines, summing BigDecimals (the previous aggregator) versus
+ * long cents in primitive groups (ReportAggregator). Both start from the BigDecimal values JDBC returns.
+ * Run with -prof gc to compare allocation: gc.alloc.rate.norm is bytes allocated per 100k-line report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportAggregationBenchmark {
+
+    private static final PaymentMethod[] PAYMENT_METHODS = PaymentMethod.values();
+
+    @Param({"100000"})
+    private int lines;
+
+    private PaymentMethod[] paymentMethods;
+    private BigDecimal[] vatRates;
+    private Long[] categoryIds;
+    private String[] categoryNames;
+    private Long[] quantities;
+    private BigDecimal[] gross;
+    private BigDecimal[] vat;
+    private BigDecimal[] net;
+
+    @Setup
+    public void setUp() {
+        Random random = SyntheticData.random();
+        paymentMethods = new PaymentMethod[lines];
+        vatRates = new BigDecimal[lines];
+        categoryIds = new Long[lines];
+        categoryNames = new String[lines];
+        quantities = new Long[lines];
+        gross = new BigDecimal[lines];
+        vat = new BigDecimal[lines];
+        net = new BigDecimal[lines];
+        for (int i = 0; i < lines; i++) {
+            paymentMethods[i] = PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)];
+            vatRates[i] = SyntheticData.VAT_RATES[random.nextInt(SyntheticData.VAT_RATES.length)];
+            int categoryIndex = random.nextInt(SyntheticData.CATEGORY_NAMES.length);
+            categoryIds[i] = i % 11 == 0 ? null : (long) categoryIndex + 1;
+            categoryNames[i] = categoryIds[i] == null ? null : SyntheticData.CATEGORY_NAMES[categoryIndex];
+            quantities[i] = (long) (1 + random.nextInt(5));
+            gross[i] = BigDecimal.valueOf(50 + random.nextInt(5_000), 2);
+            net[i] = gross[i].divide(BigDecimal.ONE.add(vatRates[i].movePointLeft(2)), 2, RoundingMode.HALF_UP);
+            vat[i] = gross[i].subtract(net[i]);
+        }
+    }
+
+    @Benchmark
+    public DailyReportDTO bigDecimal() {
+        BigDecimalReportAggregator aggregator = new BigDecimalReportAggregator();
+        for (int i = 0; i < lines; i++) {
+            aggregator.addSales(paymentMethods[i], 1, gross[i]);
+            aggregator.addLines(vatRates[i], categoryNames[i], quantities[i], gross[i], vat[i], net[i]);
+        }
+        return aggregator.toReport(LocalDate.of(2025, 1, 1));
+    }
+
+    // Mirrors SaleService.aggregateSales and aggregateLines
+    @Benchmark
+    public DailyReportDTO cents() {
+        ReportAggregator aggregator = new ReportAggregator();
+        for (int i = 0; i < lines; i++) {
+            long grossCents = Money.toCents(gross[i]);
+            aggregator.addSales(paymentMethods[i], 1, grossCents);
+            aggregator.addLines((int) Money.toCents(vatRates[i]),
+                categoryIds[i] != null ? categoryIds[i] : ReportAggregator.NO_CATEGORY, categoryNames[i], quantities[i],
+                grossCents, Money.toCents(vat[i]), Money.toCents(net[i]));
+        }
+        return aggregator.toReport(LocalDate.of(2025, 1, 1));
+    }
+}
@@ -0,0 +1,84 @@
+package com.picknpay.benchmarks;
+
+import com.picknpay.dto.DailyReportDTO;
+import com.picknpay.entity.PaymentMethod;
+import com.picknpay.service.ReportAggregator;
+import com.picknpay.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily report aggregation as SaleService does it: rows shaped like the rollup query result
+ * folded into a ReportAggregator, then turned into a DailyReportDTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+
+    private static final PaymentMethod[] PAYMENT_METHODS = PaymentMethod.values();
+
+    // Rollup rows; a day has a few dozen, a year of reports several thousand
+    @Param({"40", "1000", "15000"})
+    private int rows;
+
+    private List<Object[]> rollupTotals;
+
+    @Setup
+    public void setUp() {
+        Random random = SyntheticData.random();
+        rollupTotals = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            BigDecimal vatRate = SyntheticData.VAT_RATES[random.nextInt(SyntheticData.VAT_RATES.length)];
+            int categoryIndex = random.nextInt(SyntheticData.CATEGORY_NAMES.length);
+            Long categoryId = i % 11 == 0 ? null : (long) categoryIndex + 1;
+            String category = categoryId == null ? null : SyntheticData.CATEGORY_NAMES[categoryIndex];
+            BigDecimal gross = BigDecimal.valueOf(1_000 + random.nextInt(1_000_000), 2);
+            BigDecimal net = gross.divide(BigDecimal.ONE.add(vatRate.movePointLeft(2)), 2, RoundingMode.HALF_UP);
+            PaymentMethod paymentMethod = PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)];
+            BigDecimal splitCash = paymentMethod == PaymentMethod.SPLIT ? gross.divide(BigDecimal.valueOf(2), 2, RoundingMode.DOWN) : BigDecimal.ZERO;
+            BigDecimal splitCard = paymentMethod == PaymentMethod.SPLIT ? gross.subtract(splitCash) : BigDecimal.ZERO;
+            rollupTotals.add(new Object[] {
+                paymentMethod, vatRate, categoryId, category, (long) (1 + random.nextInt(50)), (long) (1 + random.nextInt(200)),
+                gross, gross.subtract(net), net, splitCash, splitCard
+            });
+        }
+    }
+
+    // Mirrors SaleService.aggregateRollup
+    @Benchmark
+    public DailyReportDTO aggregateRollup() {
+        ReportAggregator aggregator = new ReportAggregator();
+        for (Object[] row : rollupTotals) {
+            long grossCents = Money.toCents((BigDecimal) row[6]);
+            aggregator.addSales((PaymentMethod) row[0], (Long) row[4], grossCents);
+            aggregator.addSplitPayment(PaymentMethod.CASH, Money.toCents((BigDecimal) row[9]));
+            aggregator.addSplitPayment(PaymentMethod.CARD, Money.toCents((BigDecimal) row[10]));
+            Long categoryId = (Long) row[2];
+            aggregator.addLines((int) Money.toCents((BigDecimal) row[1]),
+                categoryId != null ? categoryId : ReportAggregator.NO_CATEGORY, (String) row[3], (Long) row[5],
+                grossCents, Money.toCents((BigDecimal) row[7]), Money.toCents((BigDecimal) row[8]));
+        }
+        return aggregator.toReport(LocalDate.of(2025, 1, 1));
+    }
+}
@@ -0,0 +1,79 @@
+package com.picknpay.benchmarks;
+
+import com.picknpay.dto.SaleDTO;
+import com.picknpay.entity.Item;
+import com.picknpay.entity.Sale;
+import com.picknpay.entity.SaleItem;
+import com.picknpay.service.SaleService;
+import com.picknpay.service.VatCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-basket work in SaleService.createSale that does not touch the database:
+ * the VAT split of every line and the conversion of the saved sale back to a SaleDTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaleBenchmark {
+
+    private static final MethodHandle CONVERT_TO_DTO;
+
+    static {
+        try {
+            CONVERT_TO_DTO = MethodHandles.privateLookupIn(SaleService.class, MethodHandles.lookup())
+                .findVirtual(SaleService.class, "convertToDTO", MethodType.methodType(SaleDTO.class, Sale.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Lines per basket
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private final SaleService saleService = new SaleService();
+    private final VatCalculator vatCalculator = new VatCalculator();
+    private Sale sale;
+
+    @Setup
+    public void setUp() {
+        List<Item> items = SyntheticData.items(1_000);
+        sale = SyntheticData.sale(1, lines, items, SyntheticData.random());
+    }
+
+    // The VatCalculator call createSale and updateSale make for each line
+    @Benchmark
+    public void vatPerLine(Blackhole blackhole) {
+        for (SaleItem saleItem : sale.getSaleItems()) {
+            vatCalculator.applyToLine(saleItem, saleItem.getItem());
+            blackhole.consume(saleItem.getPriceExcludingVat());
+            blackhole.consume(saleItem.getVatAmount());
+        }
+    }
+
+    @Benchmark
+    public SaleDTO convertToDTO() throws Throwable {
+        return (SaleDTO) CONVERT_TO_DTO.invokeExact(saleService, sale);
+    }
+}
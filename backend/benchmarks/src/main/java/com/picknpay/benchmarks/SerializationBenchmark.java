@@ -0,0 +1,127 @@
+package com.picknpay.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.picknpay.dto.CategorySummaryDTO;
+import com.picknpay.dto.DailyReportDTO;
+import com.picknpay.dto.SaleDTO;
+import com.picknpay.dto.SaleItemDTO;
+import com.picknpay.dto.SalePaymentDTO;
+import com.picknpay.dto.VatSummaryDTO;
+import com.picknpay.entity.Item;
+import com.picknpay.entity.Sale;
+import com.picknpay.entity.SaleItem;
+import com.picknpay.entity.SalePayment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of sale listings and daily reports, with the mapper configured
+ * the way Spring Boot configures it for the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    // Sales in the listing; the report carries one VAT row per rate and one category row per category
+    @Param({"10", "500", "5000"})
+    private int sales;
+
+    private ObjectMapper objectMapper;
+    private List<SaleDTO> saleDTOs;
+    private DailyReportDTO report;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .setTimeZone(TimeZone.getTimeZone("Europe/Dublin"));
+
+        List<Item> items = SyntheticData.items(1_000);
+        saleDTOs = new ArrayList<>(sales);
+        for (Sale sale : SyntheticData.sales(sales, 5, items)) {
+            saleDTOs.add(toDTO(sale));
+        }
+
+        report = new DailyReportDTO(LocalDate.of(2025, 1, 1), (long) sales, new BigDecimal("123456.78"),
+            (long) sales / 2, new BigDecimal("61728.39"), (long) sales / 2, new BigDecimal("61728.39"));
+        report.setTotalVatAmount(new BigDecimal("19876.54"));
+        report.setTotalAmountExcludingVat(new BigDecimal("103580.24"));
+        List<VatSummaryDTO> vatBreakdown = new ArrayList<>();
+        for (BigDecimal vatRate : SyntheticData.VAT_RATES) {
+            vatBreakdown.add(new VatSummaryDTO(vatRate, new BigDecimal("30864.20"), new BigDecimal("4969.14"), new BigDecimal("25895.06")));
+        }
+        report.setVatBreakdown(vatBreakdown);
+        List<CategorySummaryDTO> categories = new ArrayList<>();
+        for (String name : SyntheticData.CATEGORY_NAMES) {
+            categories.add(new CategorySummaryDTO(name, new BigDecimal("12345.68"), 321L));
+        }
+        report.setCategories(categories);
+    }
+
+    @Benchmark
+    public byte[] serializeSales() throws Exception {
+        return objectMapper.writeValueAsBytes(saleDTOs);
+    }
+
+    @Benchmark
+    public byte[] serializeDailyReport() throws Exception {
+        return objectMapper.writeValueAsBytes(report);
+    }
+
+    private static SaleDTO toDTO(Sale sale) {
+        SaleDTO dto = new SaleDTO();
+        dto.setId(sale.getId());
+        dto.setTotalAmount(sale.getTotalAmount());
+        dto.setSaleDate(sale.getSaleDate());
+        dto.setPaymentMethod(sale.getPaymentMethod());
+        List<SaleItemDTO> saleItemDTOs = new ArrayList<>();
+        for (SaleItem saleItem : sale.getSaleItems()) {
+            SaleItemDTO itemDTO = new SaleItemDTO();
+            itemDTO.setId(saleItem.getId());
+            itemDTO.setItemId(saleItem.getItem() != null ? saleItem.getItem().getId() : null);
+            itemDTO.setItemName(saleItem.getItemName());
+            itemDTO.setItemBarcode(saleItem.getItemBarcode());
+            itemDTO.setQuantity(saleItem.getQuantity());
+            itemDTO.setUnitPrice(saleItem.getUnitPrice());
+            itemDTO.setTotalPrice(saleItem.getTotalPrice());
+            itemDTO.setVatRate(saleItem.getVatRate());
+            itemDTO.setVatAmount(saleItem.getVatAmount());
+            itemDTO.setPriceExcludingVat(saleItem.getPriceExcludingVat());
+            saleItemDTOs.add(itemDTO);
+        }
+        dto.setSaleItems(saleItemDTOs);
+        if (!sale.getSalePayments().isEmpty()) {
+            List<SalePaymentDTO> paymentSplits = new ArrayList<>();
+            for (SalePayment payment : sale.getSalePayments()) {
+                SalePaymentDTO paymentDTO = new SalePaymentDTO();
+                paymentDTO.setPaymentMethod(payment.getPaymentMethod());
+                paymentDTO.setAmount(payment.getAmount());
+                paymentSplits.add(paymentDTO);
+            }
+            dto.setPaymentSplits(paymentSplits);
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,132 @@
+package com.picknpay.benchmarks;
+
+import com.picknpay.entity.Category;
+import com.picknpay.entity.Item;
+import com.picknpay.entity.PaymentMethod;
+import com.picknpay.entity.Sale;
+import com.picknpay.entity.SaleItem;
+import com.picknpay.entity.SalePayment;
+import com.picknpay.service.VatCalculator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalogue, sale and report data for the benchmarks.
+ * A fixed seed keeps runs comparable with each other.
+ */
+final class SyntheticData {
+
+    static final BigDecimal[] VAT_RATES = {
+        new BigDecimal("0.00"), new BigDecimal("9.00"), new BigDecimal("13.50"), new BigDecimal("23.00")
+    };
+
+    static final String[] CATEGORY_NAMES = {
+        "Bakery", "Dairy", "Produce", "Meat", "Frozen", "Drinks", "Snacks", "Household", "Tobacco", "Newspapers"
+    };
+
+    private static final long SEED = 42L;
+    private static final VatCalculator VAT_CALCULATOR = new VatCalculator();
+
+    private SyntheticData() {}
+
+    static List<Category> categories() {
+        List<Category> categories = new ArrayList<>(CATEGORY_NAMES.length);
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            Category category = new Category(CATEGORY_NAMES[i], CATEGORY_NAMES[i] + " products");
+            category.setId((long) i + 1);
+            category.setVatRate(VAT_RATES[i % VAT_RATES.length]);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    static List<Item> items(int count) {
+        Random random = new Random(SEED);
+        List<Category> categories = categories();
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item("Item " + i, "Synthetic item number " + i, price(random), random.nextInt(500),
+                String.format("50%011d", i));
+            item.setId((long) i + 1);
+            item.setCategory(categories.get(i % categories.size()));
+            // Some items carry no VAT rate of their own, as in the real catalogue
+            item.setVatRate(i % 7 == 0 ? null : VAT_RATES[random.nextInt(VAT_RATES.length)]);
+            VAT_CALCULATOR.cacheUnitVat(item);
+            items.add(item);
+        }
+        return items;
+    }
+
+    // A sale with the given number of lines; every fifth line is a quick sale and every tenth sale is split
+    static Sale sale(long id, int lines, List<Item> items, Random random) {
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setSaleDate(LocalDateTime.of(2025, 1, 1, 9, 0).plusMinutes(id));
+        sale.setPaymentMethod(id % 10 == 0 ? PaymentMethod.SPLIT : (id % 2 == 0 ? PaymentMethod.CASH : PaymentMethod.CARD));
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            SaleItem saleItem = new SaleItem();
+            saleItem.setId(id * 1000 + i);
+            saleItem.setSale(sale);
+            int quantity = 1 + random.nextInt(4);
+            BigDecimal unitPrice = price(random);
+            BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            saleItem.setQuantity(quantity);
+            saleItem.setUnitPrice(unitPrice);
+            saleItem.setTotalPrice(totalPrice);
+
+            BigDecimal vatRate;
+            if (i % 5 == 4) {
+                saleItem.setItemName("Quick Sale");
+                saleItem.setItemBarcode("N/A");
+                vatRate = new BigDecimal("23.00");
+            } else {
+                Item item = items.get(random.nextInt(items.size()));
+                saleItem.setItem(item);
+                saleItem.setItemName(item.getName());
+                saleItem.setItemBarcode(item.getBarcode());
+                saleItem.setCategoryId(item.getCategory().getId());
+                vatRate = item.getVatRate() != null ? item.getVatRate() : new BigDecimal("23.00");
+            }
+            BigDecimal excludingVat = totalPrice.divide(BigDecimal.ONE.add(vatRate.movePointLeft(2)), 2, RoundingMode.HALF_UP);
+            saleItem.setVatRate(vatRate);
+            saleItem.setVatAmount(totalPrice.subtract(excludingVat));
+            saleItem.setPriceExcludingVat(excludingVat);
+
+            sale.getSaleItems().add(saleItem);
+            total = total.add(totalPrice);
+        }
+        sale.setTotalAmount(total);
+
+        if (sale.getPaymentMethod() == PaymentMethod.SPLIT) {
+            BigDecimal cash = total.divide(BigDecimal.valueOf(2), 2, RoundingMode.DOWN);
+            sale.getSalePayments().add(new SalePayment(sale, PaymentMethod.CASH, cash));
+            sale.getSalePayments().add(new SalePayment(sale, PaymentMethod.CARD, total.subtract(cash)));
+        }
+        return sale;
+    }
+
+    static List<Sale> sales(int count, int linesPerSale, List<Item> items) {
+        Random random = new Random(SEED);
+        List<Sale> sales = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sales.add(sale(i + 1, linesPerSale, items, random));
+        }
+        return sales;
+    }
+
+    static Random random() {
+        return new Random(SEED);
+    }
+
+    // Shelf price between 0.50 and 50.00
+    static BigDecimal price(Random random) {
+        return BigDecimal.valueOf(50 + random.nextInt(4951), 2);
+    }
+}
@@ -0,0 +1,82 @@
+package com.picknpay.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Counts the SQL statements executed on the current thread, so RequestQueryMetricsFilter can record how
+ * many each request issued. The application's DataSource is wrapped at the JDBC level, so statements run
+ * through JdbcTemplate (stock decrements, batched sale line inserts, rollup upserts, stock-take apply,
+ * item import upserts) count alongside Hibernate's. A JDBC batch counts once per executeBatch, as it is
+ * one round trip to the database.
+ */
+@Component
+public class QueryCountingDataSource implements BeanPostProcessor {
+
+    private static final ThreadLocal<int[]> STATEMENT_COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public static void reset() {
+        STATEMENT_COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return STATEMENT_COUNT.get()[0];
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return proxy(DataSource.class, bean);
+        }
+        return bean;
+    }
+
+    // Wraps a DataSource, Connection or Statement so the statements it hands out are counted when executed.
+    // unwrap and isWrapperFor reach the target, so Hikari metrics still find the pool behind the proxy
+    private static Object proxy(Class<?> type, Object target) {
+        InvocationHandler handler = (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(self)) {
+                        return self;
+                    }
+                    break;
+                default:
+                    if (target instanceof Statement && EXECUTE_METHODS.contains(method.getName())) {
+                        STATEMENT_COUNT.get()[0]++;
+                    }
+            }
+            Object result = invoke(method, target, args);
+            Class<?> returnType = method.getReturnType();
+            if (result != null && (returnType == Connection.class || Statement.class.isAssignableFrom(returnType))) {
+                return proxy(returnType, result);
+            }
+            return result;
+        };
+        return Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
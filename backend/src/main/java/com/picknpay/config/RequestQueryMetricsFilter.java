@@ -0,0 +1,52 @@
+package com.picknpay.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the number of SQL statements each API request issued, tagged with the endpoint's URI pattern,
+ * so N+1 regressions show up as a shift in picknpay.requests.queries. Statements are counted at the JDBC
+ * level by QueryCountingDataSource, Hibernate and JdbcTemplate alike; a JDBC batch counts as one. Work a
+ * request hands to another thread (report jobs, the sale journal) is not counted against it.
+ */
+@Component
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCountingDataSource.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // The pattern is only known once the request has been dispatched to a controller
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("picknpay.requests.queries")
+                    .description("SQL statements (JDBC executes; a batch counts once) issued per API request on its own thread")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(QueryCountingDataSource.count());
+        }
+    }
+}
@@ -49,6 +49,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/sales/**").permitAll()
                         .requestMatchers("/api/categories/**").permitAll()
                         .requestMatchers("/api/attendances/**").permitAll()
+                        .requestMatchers("/api/display/**").permitAll()
+                        .requestMatchers("/api/stock-takes/**").permitAll()
+                        .requestMatchers("/api/reports/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider());
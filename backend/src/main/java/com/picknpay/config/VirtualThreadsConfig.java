@@ -0,0 +1,31 @@
+package com.picknpay.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Checks the runtime when the virtual-threads profile is active. Spring Boot only switches Tomcat and the
+ * task executors to virtual threads on Java 21 or later (ReportJobService does the same for its pool) and
+ * otherwise silently keeps platform threads, so an older runtime is reported at startup instead.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkRuntime() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            logger.warn("The virtual-threads profile is active but Java {} has no virtual threads; "
+                    + "requests, scheduled jobs and report jobs run on platform threads. Use Java 21 or later", feature);
+        } else {
+            logger.info("Running requests, @Async methods, scheduled jobs and report jobs on virtual threads (Java {})", feature);
+        }
+    }
+}
@@ -4,9 +4,12 @@ import com.picknpay.dto.CompanySettingsDTO;
 import com.picknpay.service.CompanySettingsService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/company-settings")
@@ -16,10 +19,18 @@ public class CompanySettingsController {
     @Autowired
     private CompanySettingsService companySettingsService;
 
+    // Polled by the customer display; answers If-None-Match with 304 from memory, without the database or Jackson
     @GetMapping
-    public ResponseEntity<CompanySettingsDTO> getCompanySettings() {
-        CompanySettingsDTO settings = companySettingsService.getCompanySettings();
-        return ResponseEntity.ok(settings);
+    public ResponseEntity<byte[]> getCompanySettings(WebRequest webRequest) {
+        CompanySettingsService.VersionedSettings settings = companySettingsService.getVersionedSettings();
+        if (webRequest.checkNotModified(settings.getETag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(settings.getETag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(settings.getJson());
     }
 
     @PutMapping
@@ -32,4 +43,3 @@ public class CompanySettingsController {
         }
     }
 }
- 
\ No newline at end of file
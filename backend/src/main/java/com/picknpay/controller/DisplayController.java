@@ -0,0 +1,49 @@
+package com.picknpay.controller;
+
+import com.picknpay.service.DisplayEventHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/display")
+@CrossOrigin(origins = "*")
+public class DisplayController {
+    
+    @Autowired
+    private DisplayEventHub displayEventHub;
+    
+    // Server-sent events for a customer display: settings changes, plus the cart of the given till if any
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false) String till) {
+        List<String> topics = new ArrayList<>();
+        topics.add(DisplayEventHub.SETTINGS_TOPIC);
+        if (till != null && !till.isBlank()) {
+            topics.add(DisplayEventHub.cartTopic(till));
+        }
+        return displayEventHub.subscribe(topics);
+    }
+    
+    // Called by a till whenever its cart changes; the body is passed through to the displays as-is
+    @PutMapping("/tills/{tillId}/cart")
+    public ResponseEntity<Void> publishCart(@PathVariable String tillId, @RequestBody Map<String, Object> cartState) {
+        displayEventHub.publish(DisplayEventHub.cartTopic(tillId), "cart", cartState);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getStats() {
+        return ResponseEntity.ok(displayEventHub.getStats());
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body("Invalid request: " + ex.getMessage());
+    }
+}
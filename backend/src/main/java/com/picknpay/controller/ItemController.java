@@ -1,15 +1,25 @@
 package com.picknpay.controller;
 
+import com.picknpay.dto.CatalogChangesDTO;
 import com.picknpay.dto.ItemDTO;
+import com.picknpay.dto.ItemImportResultDTO;
 import com.picknpay.dto.PaginatedResponse;
+import com.picknpay.service.ItemImportService;
 import com.picknpay.service.ItemService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -20,6 +30,9 @@ public class ItemController {
     @Autowired
     private ItemService itemService;
     
+    @Autowired
+    private ItemImportService itemImportService;
+    
     @GetMapping
     public ResponseEntity<?> getAllItems(
             @RequestParam(required = false) Integer page,
@@ -53,6 +66,18 @@ public class ItemController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    // Size and hit/miss counters of the in-memory barcode index
+    @GetMapping("/barcode-index/stats")
+    public ResponseEntity<Map<String, Long>> getBarcodeIndexStats() {
+        return ResponseEntity.ok(itemService.getBarcodeIndexStats());
+    }
+    
+    // Catalogue delta sync for tills keeping a local copy; omit since for the full catalogue
+    @GetMapping("/changes")
+    public ResponseEntity<CatalogChangesDTO> getCatalogChanges(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok(itemService.getCatalogChanges(since));
+    }
+    
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<List<ItemDTO>> getItemsByCategory(@PathVariable Long categoryId) {
         List<ItemDTO> items = itemService.getItemsByCategory(categoryId);
@@ -60,8 +85,10 @@ public class ItemController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDTO>> searchItemsByName(@RequestParam String name) {
-        List<ItemDTO> items = itemService.searchItemsByName(name);
+    public ResponseEntity<List<ItemDTO>> searchItemsByName(
+            @RequestParam String name,
+            @RequestParam(required = false) Integer limit) {
+        List<ItemDTO> items = itemService.searchItemsByName(name, limit);
         return ResponseEntity.ok(items);
     }
     
@@ -92,6 +119,20 @@ public class ItemController {
         }
     }
     
+    // Bulk catalogue import: CSV sent as the request body, read as a stream
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ItemImportResultDTO> importItems(InputStream body) throws IOException {
+        return ResponseEntity.ok(itemImportService.importItems(new InputStreamReader(body, StandardCharsets.UTF_8)));
+    }
+    
+    // Bulk catalogue import from an uploaded CSV file
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ItemImportResultDTO> importItemsFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream body = file.getInputStream()) {
+            return ResponseEntity.ok(itemImportService.importItems(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ItemDTO> updateItem(@PathVariable Long id, @Valid @RequestBody ItemDTO itemDTO) {
         Optional<ItemDTO> updatedItem = itemService.updateItem(id, itemDTO);
@@ -115,4 +156,9 @@ public class ItemController {
         return updated ? ResponseEntity.ok().build() : ResponseEntity.badRequest().build();
     }
     
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body("Invalid request: " + ex.getMessage());
+    }
+    
 }
@@ -1,5 +1,6 @@
 package com.picknpay.controller;
 
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +12,9 @@ public class MigrationController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @PostMapping("/fix-enum-schema")
     public String fixEnumSchema() {
         try {
@@ -32,6 +36,9 @@ public class MigrationController {
             jdbcTemplate.execute("DROP TYPE IF EXISTS payment_method");
             jdbcTemplate.execute("DROP TYPE IF EXISTS user_role");
 
+            // Users were rewritten behind Hibernate's back, so drop any cached copies
+            entityManagerFactory.getCache().evictAll();
+
             return "Enum schema migration completed successfully!";
         } catch (Exception e) {
             return "Migration failed: " + e.getMessage();
@@ -0,0 +1,73 @@
+package com.picknpay.controller;
+
+import com.picknpay.dto.ReportJobDTO;
+import com.picknpay.entity.ReportJobStatus;
+import com.picknpay.service.DisplayEventHub;
+import com.picknpay.service.ReportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private DisplayEventHub displayEventHub;
+
+    // Queue a daily report over a date range (userId omitted: all users). 200 with the result when a stored
+    // one can be reused, otherwise 202 with the job to poll
+    @PostMapping
+    public ResponseEntity<ReportJobDTO> submitReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        ReportJobDTO job = reportJobService.submit(startDate, endDate, userId, refresh);
+        HttpStatus status = ReportJobStatus.COMPLETED.name().equals(job.getStatus()) ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(job);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReportJobDTO>> getRecentJobs() {
+        return ResponseEntity.ok(reportJobService.getRecentJobs());
+    }
+
+    // The job, with its DailyReportDTO as result once COMPLETED
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    // Server-sent "report-job" events whenever a job completes or fails
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return displayEventHub.subscribe(List.of(DisplayEventHub.REPORTS_TOPIC));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body("Invalid request: " + ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<?> handleIllegalStateException(IllegalStateException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<?> handleRuntimeException(RuntimeException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
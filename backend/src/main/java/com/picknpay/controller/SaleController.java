@@ -1,19 +1,38 @@
 package com.picknpay.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.picknpay.dto.SaleBatchResultDTO;
 import com.picknpay.dto.SaleDTO;
 import com.picknpay.dto.DailyReportDTO;
+import com.picknpay.service.DailySalesRollupService;
+import com.picknpay.service.SaleJournal;
 import com.picknpay.service.SaleService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -22,54 +41,140 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class SaleController {
     
+    private static final Logger logger = LoggerFactory.getLogger(SaleController.class);
+    
     @Autowired
     private SaleService saleService;
     
+    @Autowired
+    private DailySalesRollupService dailySalesRollupService;
+    
+    @Autowired
+    private SaleJournal saleJournal;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // List endpoints return everything by default; pass limit (and the previous page's nextCursor) for keyset pagination
     @GetMapping
-    public ResponseEntity<List<SaleDTO>> getAllSales() {
+    public ResponseEntity<?> getAllSales(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit != null) {
+            return ResponseEntity.ok(saleService.getSalesPage(null, null, null, cursor, limit));
+        }
         List<SaleDTO> sales = saleService.getAllSales();
         return ResponseEntity.ok(sales);
     }
     
     @GetMapping("/today")
-    public ResponseEntity<List<SaleDTO>> getTodaySales(
+    public ResponseEntity<?> getTodaySales(
             @RequestParam Long userId,
-            @RequestParam boolean isAdmin) {
+            @RequestParam boolean isAdmin,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit != null) {
+            return ResponseEntity.ok(saleService.getTodaySalesPage(userId, isAdmin, cursor, limit));
+        }
         List<SaleDTO> sales = saleService.getTodaySales(userId, isAdmin);
         return ResponseEntity.ok(sales);
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<SaleDTO>> getSalesByUserId(@PathVariable Long userId) {
+    public ResponseEntity<?> getSalesByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit != null) {
+            return ResponseEntity.ok(saleService.getSalesPage(userId, null, null, cursor, limit));
+        }
         List<SaleDTO> sales = saleService.getSalesByUserId(userId);
         return ResponseEntity.ok(sales);
     }
     
     @GetMapping("/user/{userId}/date-range")
-    public ResponseEntity<List<SaleDTO>> getSalesByUserIdAndDateRange(
+    public ResponseEntity<?> getSalesByUserIdAndDateRange(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit != null) {
+            return ResponseEntity.ok(saleService.getSalesPage(userId, startDate, endDate, cursor, limit));
+        }
         List<SaleDTO> sales = saleService.getSalesByUserIdAndDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(sales);
     }
     
     @GetMapping("/admin/date-range")
-    public ResponseEntity<List<SaleDTO>> getSalesByDateRangeForAdmin(
+    public ResponseEntity<?> getSalesByDateRangeForAdmin(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit != null) {
+            return ResponseEntity.ok(saleService.getSalesPage(null, startDate, endDate, cursor, limit));
+        }
         List<SaleDTO> sales = saleService.getSalesByDateRangeForAdmin(startDate, endDate);
         return ResponseEntity.ok(sales);
     }
     
     @GetMapping("/date-range")
-    public ResponseEntity<List<SaleDTO>> getSalesByDateRange(
+    public ResponseEntity<?> getSalesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit != null) {
+            return ResponseEntity.ok(saleService.getSalesPage(null, startDate, endDate, cursor, limit));
+        }
         List<SaleDTO> sales = saleService.getSalesByDateRange(startDate, endDate);
         return ResponseEntity.ok(sales);
     }
     
+    // Newline-delimited JSON, one sale per line, oldest first; written as it is read so large ranges are never held in memory
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Long userId) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            saleService.streamSales(userId, startDate, endDate, sale -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(sale));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
+    // Sale lines from start to end (inclusive dates) as CSV, streamed straight from a database cursor
+    @GetMapping(value = "/export.csv", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportSalesCsv(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(required = false) Long userId) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end must not be before start");
+        }
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            saleService.exportSaleLinesCsv(start, end, userId, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("sales-" + start + "-to-" + end + ".csv").build().toString())
+                .body(body);
+    }
+    
     @GetMapping("/daily-report")
     public ResponseEntity<DailyReportDTO> getDailyReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
@@ -102,6 +207,19 @@ public class SaleController {
         return ResponseEntity.ok(report);
     }
     
+    // Recompute the report rollup for a date range, e.g. to back-fill history or after manual data fixes
+    @PostMapping("/daily-report/rollup/rebuild")
+    public ResponseEntity<?> rebuildDailySalesRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            int rows = dailySalesRollupService.rebuild(startDate, endDate);
+            return ResponseEntity.ok().body("Rebuilt " + rows + " rollup rows from " + startDate + " to " + endDate);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error rebuilding rollup: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/total")
     public ResponseEntity<Double> getTotalSalesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
@@ -120,26 +238,88 @@ public class SaleController {
     @PostMapping
     public ResponseEntity<?> createSale(@Valid @RequestBody SaleDTO saleDTO) {
         try {
-            System.out.println("Creating sale with payment method: " + saleDTO.getPaymentMethod());
-            if (saleDTO.getPaymentSplits() != null) {
-                System.out.println("Payment splits count: " + saleDTO.getPaymentSplits().size());
-                saleDTO.getPaymentSplits().forEach(split -> {
-                    System.out.println("  - " + split.getPaymentMethod() + ": " + split.getAmount());
-                });
+            if (logger.isDebugEnabled()) {
+                logger.debug("Creating sale with payment method: {}", saleDTO.getPaymentMethod());
+                if (saleDTO.getPaymentSplits() != null) {
+                    logger.debug("Payment splits count: {}", saleDTO.getPaymentSplits().size());
+                    saleDTO.getPaymentSplits().forEach(split ->
+                        logger.debug("  - {}: {}", split.getPaymentMethod(), split.getAmount()));
+                }
+            }
+            if (saleJournal.isRunning()) {
+                Optional<ResponseEntity<?>> journaled = createJournaledSale(saleDTO);
+                if (journaled.isPresent()) {
+                    return journaled.get();
+                }
+            }
+            // A retry of a sale that was already recorded gets the original back instead of a second sale
+            if (saleDTO.getClientSaleId() != null) {
+                Optional<SaleDTO> original = saleService.getSaleByClientSaleId(saleDTO.getClientSaleId());
+                if (original.isPresent()) {
+                    return ResponseEntity.ok(original.get());
+                }
             }
             SaleDTO createdSale = saleService.createSale(saleDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdSale);
+        } catch (DataIntegrityViolationException e) {
+            // The same sale was recorded concurrently by another attempt; its unique client id rejected this one
+            if (saleDTO.getClientSaleId() != null) {
+                Optional<SaleDTO> original = saleService.getSaleByClientSaleId(saleDTO.getClientSaleId());
+                if (original.isPresent()) {
+                    return ResponseEntity.ok(original.get());
+                }
+            }
+            logger.warn("Data integrity violation creating sale: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error creating sale: " + e.getMessage());
         } catch (RuntimeException e) {
-            System.err.println("RuntimeException creating sale: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("RuntimeException creating sale: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Error creating sale: " + e.getMessage());
         } catch (Exception e) {
-            System.err.println("Exception creating sale: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Exception creating sale: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Unexpected error: " + e.getMessage());
         }
     }
     
+    // 201 once the journaled sale is in the database, 200 for a retry of a recorded sale, and 202 with the
+    // sale as submitted (no id yet) when it was not written within the ack timeout. Empty if the sale could not be
+    // journaled, in which case it is written directly
+    private Optional<ResponseEntity<?>> createJournaledSale(SaleDTO saleDTO) {
+        SaleBatchResultDTO result;
+        try {
+            result = saleJournal.submit(saleDTO);
+        } catch (IOException e) {
+            logger.warn("Sale journal unavailable, writing sale directly: {}", e.getMessage());
+            return Optional.empty();
+        }
+        switch (result.getStatus()) {
+            case SaleBatchResultDTO.CREATED:
+                return Optional.of(ResponseEntity.status(HttpStatus.CREATED).body(result.getSale()));
+            case SaleBatchResultDTO.DUPLICATE:
+                return Optional.of(ResponseEntity.ok(result.getSale()));
+            case SaleBatchResultDTO.ACCEPTED:
+                return Optional.of(ResponseEntity.status(HttpStatus.ACCEPTED).body(result.getSale()));
+            default:
+                return Optional.of(ResponseEntity.badRequest().body("Error creating sale: " + result.getError()));
+        }
+    }
+    
+    @GetMapping("/journal/stats")
+    public ResponseEntity<Map<String, Object>> getJournalStats() {
+        return ResponseEntity.ok(saleJournal.getStats());
+    }
+    
+    // Journaled sales the database refused on replay (e.g. insufficient stock), to be followed up by hand
+    @GetMapping("/journal/rejected")
+    public ResponseEntity<List<Map<String, Object>>> getRejectedJournalSales() throws IOException {
+        return ResponseEntity.ok(saleJournal.getRejectedSales());
+    }
+    
+    // Upload of sales queued by a till while offline; one result per sale, in request order
+    @PostMapping("/batch")
+    public ResponseEntity<List<SaleBatchResultDTO>> createSales(@RequestBody List<SaleDTO> saleDTOs) {
+        return ResponseEntity.ok(saleService.createSales(saleDTOs));
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidationExceptions(MethodArgumentNotValidException ex) {
         String errors = ex.getBindingResult()
@@ -151,6 +331,11 @@ public class SaleController {
         return ResponseEntity.badRequest().body("Validation error: " + errors);
     }
     
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body("Invalid request: " + ex.getMessage());
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<?> updateSale(@PathVariable Long id, @Valid @RequestBody SaleDTO saleDTO) {
         try {
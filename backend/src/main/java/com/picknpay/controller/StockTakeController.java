@@ -0,0 +1,82 @@
+package com.picknpay.controller;
+
+import com.picknpay.dto.StockCountDTO;
+import com.picknpay.dto.StockCountResultDTO;
+import com.picknpay.dto.StockTakeDTO;
+import com.picknpay.dto.StockTakeVarianceDTO;
+import com.picknpay.service.StockTakeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stock-takes")
+@CrossOrigin(origins = "*")
+public class StockTakeController {
+
+    @Autowired
+    private StockTakeService stockTakeService;
+
+    @GetMapping
+    public ResponseEntity<List<StockTakeDTO>> getAllStockTakes() {
+        return ResponseEntity.ok(stockTakeService.getAllStockTakes());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StockTakeDTO> getStockTake(@PathVariable Long id) {
+        return ResponseEntity.ok(stockTakeService.getStockTake(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<StockTakeDTO> createStockTake(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockTakeService.createStockTake(name, userId));
+    }
+
+    // Counted quantities as JSON [{barcode, quantity}]; a barcode counted again replaces its earlier count
+    @PostMapping(value = "/{id}/counts", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockCountResultDTO> recordCounts(@PathVariable Long id, @RequestBody List<StockCountDTO> counts) {
+        return ResponseEntity.ok(stockTakeService.recordCounts(id, counts));
+    }
+
+    // Counted quantities streamed as CSV rows of barcode,quantity
+    @PostMapping(value = "/{id}/counts", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<StockCountResultDTO> recordCountsCsv(@PathVariable Long id, InputStream body) throws IOException {
+        return ResponseEntity.ok(stockTakeService.recordCounts(id, new InputStreamReader(body, StandardCharsets.UTF_8)));
+    }
+
+    // Counted items that differ from stock, and counted barcodes that match no item
+    @GetMapping("/{id}/variances")
+    public ResponseEntity<List<StockTakeVarianceDTO>> getVariances(@PathVariable Long id) {
+        return ResponseEntity.ok(stockTakeService.getVariances(id));
+    }
+
+    @PostMapping("/{id}/apply")
+    public ResponseEntity<StockTakeDTO> applyStockTake(@PathVariable Long id) {
+        return ResponseEntity.ok(stockTakeService.applyStockTake(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<StockTakeDTO> cancelStockTake(@PathVariable Long id) {
+        return ResponseEntity.ok(stockTakeService.cancelStockTake(id));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body("Invalid request: " + ex.getMessage());
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<?> handleRuntimeException(RuntimeException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
@@ -0,0 +1,54 @@
+package com.picknpay.dto;
+
+import java.util.List;
+
+// Items created, updated or deleted since a sync token. When fullSync is true, items is the whole
+// catalogue and the till should replace its copy. Pass syncToken back as since on the next call.
+public class CatalogChangesDTO {
+    private List<ItemDTO> items;
+    private List<Long> deletedItemIds;
+    private String syncToken;
+    private boolean fullSync;
+
+    public CatalogChangesDTO() {
+    }
+
+    public CatalogChangesDTO(List<ItemDTO> items, List<Long> deletedItemIds, String syncToken, boolean fullSync) {
+        this.items = items;
+        this.deletedItemIds = deletedItemIds;
+        this.syncToken = syncToken;
+        this.fullSync = fullSync;
+    }
+
+    public List<ItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemDTO> items) {
+        this.items = items;
+    }
+
+    public List<Long> getDeletedItemIds() {
+        return deletedItemIds;
+    }
+
+    public void setDeletedItemIds(List<Long> deletedItemIds) {
+        this.deletedItemIds = deletedItemIds;
+    }
+
+    public String getSyncToken() {
+        return syncToken;
+    }
+
+    public void setSyncToken(String syncToken) {
+        this.syncToken = syncToken;
+    }
+
+    public boolean isFullSync() {
+        return fullSync;
+    }
+
+    public void setFullSync(boolean fullSync) {
+        this.fullSync = fullSync;
+    }
+}
@@ -0,0 +1,53 @@
+package com.picknpay.dto;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; pass nextCursor back as the cursor parameter to get the following page
+public class CursorPaginatedResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean last;
+
+    public CursorPaginatedResponse() {
+    }
+
+    public CursorPaginatedResponse(List<T> content, int size, String nextCursor, boolean last) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.last = last;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+
+    public void setLast(boolean last) {
+        this.last = last;
+    }
+}
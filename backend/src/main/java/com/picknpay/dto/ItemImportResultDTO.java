@@ -0,0 +1,114 @@
+package com.picknpay.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of a catalogue import: row counts plus the rows that were not imported and why
+public class ItemImportResultDTO {
+
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private int categoriesCreated;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public ItemImportResultDTO() {}
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public int getCategoriesCreated() {
+        return categoriesCreated;
+    }
+
+    public void setCategoriesCreated(int categoriesCreated) {
+        this.categoriesCreated = categoriesCreated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    // A row that was not imported; line is the line of the file the row starts on
+    public static class RowError {
+
+        private long line;
+        private String barcode;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long line, String barcode, String message) {
+            this.line = line;
+            this.barcode = barcode;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getBarcode() {
+            return barcode;
+        }
+
+        public void setBarcode(String barcode) {
+            this.barcode = barcode;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.picknpay.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class ReportJobDTO {
+    private Long id;
+    private String status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long userId;
+    private LocalDateTime requestedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String error;
+    // The finished DailyReportDTO, embedded as stored; left out of job lists and notifications
+    @JsonRawValue
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String result;
+
+    // Constructors
+    public ReportJobDTO() {}
+
+    public ReportJobDTO(Long id, String status, LocalDate startDate, LocalDate endDate, Long userId,
+                        LocalDateTime requestedAt, LocalDateTime startedAt, LocalDateTime completedAt,
+                        String error, String result) {
+        this.id = id;
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.userId = userId;
+        this.requestedAt = requestedAt;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+        this.error = error;
+        this.result = result;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public void setRequestedAt(LocalDateTime requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,59 @@
+package com.picknpay.dto;
+
+import java.util.UUID;
+
+// Outcome of one sale in a batch upload: CREATED, DUPLICATE (already recorded, sale is the original) or FAILED.
+// A journaled sale not yet written to the database is ACCEPTED; sale is then the sale as submitted
+public class SaleBatchResultDTO {
+    
+    public static final String CREATED = "CREATED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String FAILED = "FAILED";
+    public static final String ACCEPTED = "ACCEPTED";
+    
+    private UUID clientSaleId;
+    private String status;
+    private SaleDTO sale;
+    private String error;
+    
+    public SaleBatchResultDTO() {}
+    
+    public SaleBatchResultDTO(UUID clientSaleId, String status, SaleDTO sale, String error) {
+        this.clientSaleId = clientSaleId;
+        this.status = status;
+        this.sale = sale;
+        this.error = error;
+    }
+    
+    public UUID getClientSaleId() {
+        return clientSaleId;
+    }
+    
+    public void setClientSaleId(UUID clientSaleId) {
+        this.clientSaleId = clientSaleId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public SaleDTO getSale() {
+        return sale;
+    }
+    
+    public void setSale(SaleDTO sale) {
+        this.sale = sale;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 public class SaleDTO {
     
@@ -33,6 +34,8 @@ public class SaleDTO {
     
     private List<SalePaymentDTO> paymentSplits; // For split payments
     
+    private UUID clientSaleId; // Optional; resubmitting the same id returns the original sale
+    
     // Constructors
     public SaleDTO() {}
     
@@ -114,4 +117,12 @@ public class SaleDTO {
     public void setPaymentSplits(List<SalePaymentDTO> paymentSplits) {
         this.paymentSplits = paymentSplits;
     }
+    
+    public UUID getClientSaleId() {
+        return clientSaleId;
+    }
+    
+    public void setClientSaleId(UUID clientSaleId) {
+        this.clientSaleId = clientSaleId;
+    }
 }
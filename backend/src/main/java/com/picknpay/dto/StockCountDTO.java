@@ -0,0 +1,32 @@
+package com.picknpay.dto;
+
+// One counted barcode in a stock-take upload
+public class StockCountDTO {
+    private String barcode;
+    private Integer quantity;
+
+    // Constructors
+    public StockCountDTO() {}
+
+    public StockCountDTO(String barcode, Integer quantity) {
+        this.barcode = barcode;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
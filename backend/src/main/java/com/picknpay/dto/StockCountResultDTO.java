@@ -0,0 +1,48 @@
+package com.picknpay.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of a stock-take count upload: rows read, counts recorded and the rows that were skipped
+public class StockCountResultDTO {
+    private long rowsRead;
+    private long counted;
+    private long failed;
+    private List<ItemImportResultDTO.RowError> errors = new ArrayList<>();
+
+    // Constructors
+    public StockCountResultDTO() {}
+
+    // Getters and Setters
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getCounted() {
+        return counted;
+    }
+
+    public void setCounted(long counted) {
+        this.counted = counted;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ItemImportResultDTO.RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ItemImportResultDTO.RowError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,94 @@
+package com.picknpay.dto;
+
+import java.time.LocalDateTime;
+
+public class StockTakeDTO {
+    private Long id;
+    private String name;
+    private String status;
+    private Long userId;
+    private LocalDateTime createdAt;
+    private LocalDateTime closedAt;
+    private long countedItems;
+    private Integer adjustedItems;
+
+    // Constructors
+    public StockTakeDTO() {}
+
+    public StockTakeDTO(Long id, String name, String status, Long userId, LocalDateTime createdAt,
+                        LocalDateTime closedAt, long countedItems, Integer adjustedItems) {
+        this.id = id;
+        this.name = name;
+        this.status = status;
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.closedAt = closedAt;
+        this.countedItems = countedItems;
+        this.adjustedItems = adjustedItems;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+
+    public long getCountedItems() {
+        return countedItems;
+    }
+
+    public void setCountedItems(long countedItems) {
+        this.countedItems = countedItems;
+    }
+
+    public Integer getAdjustedItems() {
+        return adjustedItems;
+    }
+
+    public void setAdjustedItems(Integer adjustedItems) {
+        this.adjustedItems = adjustedItems;
+    }
+}
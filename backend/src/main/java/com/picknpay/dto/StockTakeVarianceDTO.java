@@ -0,0 +1,74 @@
+package com.picknpay.dto;
+
+// A counted barcode whose count differs from the item's stock when it was counted.
+// itemId and itemName are null when no item has the barcode
+public class StockTakeVarianceDTO {
+    private String barcode;
+    private Long itemId;
+    private String itemName;
+    private Integer systemQuantity;
+    private Integer countedQuantity;
+    private Integer variance;
+
+    // Constructors
+    public StockTakeVarianceDTO() {}
+
+    public StockTakeVarianceDTO(String barcode, Long itemId, String itemName, Integer systemQuantity,
+                                Integer countedQuantity, Integer variance) {
+        this.barcode = barcode;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.systemQuantity = systemQuantity;
+        this.countedQuantity = countedQuantity;
+        this.variance = variance;
+    }
+
+    // Getters and Setters
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public Integer getSystemQuantity() {
+        return systemQuantity;
+    }
+
+    public void setSystemQuantity(Integer systemQuantity) {
+        this.systemQuantity = systemQuantity;
+    }
+
+    public Integer getCountedQuantity() {
+        return countedQuantity;
+    }
+
+    public void setCountedQuantity(Integer countedQuantity) {
+        this.countedQuantity = countedQuantity;
+    }
+
+    public Integer getVariance() {
+        return variance;
+    }
+
+    public void setVariance(Integer variance) {
+        this.variance = variance;
+    }
+}
@@ -0,0 +1,177 @@
+package com.picknpay.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Pre-aggregated sales per day, user, payment method, VAT rate and category, kept in step with
+// sale writes so reports over long ranges sum a few rollup rows instead of every sale line.
+// userId and categoryId use 0 for "no user" and "no category" so the key columns can be NOT NULL
+// and upserted with ON CONFLICT.
+@Entity
+@Table(name = "daily_sales_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_daily_sales_rollup_key",
+                columnNames = {"rollup_date", "user_id", "payment_method", "vat_rate", "category_id"}),
+        indexes = @Index(name = "idx_daily_sales_rollup_user_date", columnList = "user_id, rollup_date"))
+public class DailySalesRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", length = 10, nullable = false)
+    private PaymentMethod paymentMethod;
+    
+    @Column(name = "vat_rate", precision = 5, scale = 2, nullable = false)
+    private BigDecimal vatRate;
+    
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+    
+    // Sale-level figures are recorded once per sale, on the row of its first line
+    @Column(name = "sale_count", nullable = false)
+    private Long saleCount = 0L;
+    
+    @Column(name = "split_cash_amount", precision = 12, scale = 2, nullable = false)
+    private BigDecimal splitCashAmount = BigDecimal.ZERO;
+    
+    @Column(name = "split_card_amount", precision = 12, scale = 2, nullable = false)
+    private BigDecimal splitCardAmount = BigDecimal.ZERO;
+    
+    // Line-level figures
+    @Column(name = "quantity", nullable = false)
+    private Long quantity = 0L;
+    
+    @Column(name = "gross_amount", precision = 12, scale = 2, nullable = false)
+    private BigDecimal grossAmount = BigDecimal.ZERO;
+    
+    @Column(name = "vat_amount", precision = 12, scale = 2, nullable = false)
+    private BigDecimal vatAmount = BigDecimal.ZERO;
+    
+    @Column(name = "net_amount", precision = 12, scale = 2, nullable = false)
+    private BigDecimal netAmount = BigDecimal.ZERO;
+    
+    // Constructors
+    public DailySalesRollup() {}
+    
+    public DailySalesRollup(LocalDate rollupDate, Long userId, PaymentMethod paymentMethod, BigDecimal vatRate, Long categoryId) {
+        this.rollupDate = rollupDate;
+        this.userId = userId;
+        this.paymentMethod = paymentMethod;
+        this.vatRate = vatRate;
+        this.categoryId = categoryId;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+    
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+    
+    public BigDecimal getVatRate() {
+        return vatRate;
+    }
+    
+    public void setVatRate(BigDecimal vatRate) {
+        this.vatRate = vatRate;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public Long getSaleCount() {
+        return saleCount;
+    }
+    
+    public void setSaleCount(Long saleCount) {
+        this.saleCount = saleCount;
+    }
+    
+    public BigDecimal getSplitCashAmount() {
+        return splitCashAmount;
+    }
+    
+    public void setSplitCashAmount(BigDecimal splitCashAmount) {
+        this.splitCashAmount = splitCashAmount;
+    }
+    
+    public BigDecimal getSplitCardAmount() {
+        return splitCardAmount;
+    }
+    
+    public void setSplitCardAmount(BigDecimal splitCardAmount) {
+        this.splitCardAmount = splitCardAmount;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getGrossAmount() {
+        return grossAmount;
+    }
+    
+    public void setGrossAmount(BigDecimal grossAmount) {
+        this.grossAmount = grossAmount;
+    }
+    
+    public BigDecimal getVatAmount() {
+        return vatAmount;
+    }
+    
+    public void setVatAmount(BigDecimal vatAmount) {
+        this.vatAmount = vatAmount;
+    }
+    
+    public BigDecimal getNetAmount() {
+        return netAmount;
+    }
+    
+    public void setNetAmount(BigDecimal netAmount) {
+        this.netAmount = netAmount;
+    }
+}
@@ -38,6 +38,13 @@ public class Item {
     @Column(name = "vat_rate", precision = 5, scale = 2, nullable = false)
     private BigDecimal vatRate = new BigDecimal("23.00"); // Default 23% VAT
     
+    // VAT split of the shelf price, cached when the item is saved so checkout need not divide
+    @Column(name = "unit_price_excluding_vat", precision = 10, scale = 2)
+    private BigDecimal unitPriceExcludingVat;
+    
+    @Column(name = "unit_vat_amount", precision = 10, scale = 2)
+    private BigDecimal unitVatAmount;
+    
     @Column(name = "batch_id")
     private String batchId;
     
@@ -150,6 +157,22 @@ public class Item {
         this.vatRate = vatRate;
     }
     
+    public BigDecimal getUnitPriceExcludingVat() {
+        return unitPriceExcludingVat;
+    }
+    
+    public void setUnitPriceExcludingVat(BigDecimal unitPriceExcludingVat) {
+        this.unitPriceExcludingVat = unitPriceExcludingVat;
+    }
+    
+    public BigDecimal getUnitVatAmount() {
+        return unitVatAmount;
+    }
+    
+    public void setUnitVatAmount(BigDecimal unitVatAmount) {
+        this.unitVatAmount = unitVatAmount;
+    }
+    
     public String getBatchId() {
         return batchId;
     }
@@ -0,0 +1,42 @@
+package com.picknpay.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Marker left behind when an item is deleted, so tills syncing the catalogue incrementally
+// (GET /api/items/changes) learn to drop it. Pruned once older than the sync retention period.
+@Entity
+@Table(name = "item_tombstones",
+        indexes = @Index(name = "idx_item_tombstones_deleted_at", columnList = "deleted_at"))
+public class ItemTombstone {
+    
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    public ItemTombstone() {}
+    
+    public ItemTombstone(Long itemId, LocalDateTime deletedAt) {
+        this.itemId = itemId;
+        this.deletedAt = deletedAt;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.picknpay.entity;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    STALE
+}
@@ -8,9 +8,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_client_sale_id", columnNames = "client_sale_id"))
 public class Sale {
     
     @Id
@@ -59,6 +61,10 @@ public class Sale {
     @Column(name = "selected_vat_rate", precision = 5, scale = 2)
     private BigDecimal selectedVatRate;
     
+    // Generated by the till for each sale so a retried submission is recognised instead of recorded twice
+    @Column(name = "client_sale_id")
+    private UUID clientSaleId;
+    
     // Constructors
     public Sale() {
         this.saleDate = LocalDateTime.now();
@@ -176,4 +182,12 @@ public class Sale {
     public void setSalePayments(List<SalePayment> salePayments) {
         this.salePayments = salePayments;
     }
+    
+    public UUID getClientSaleId() {
+        return clientSaleId;
+    }
+    
+    public void setClientSaleId(UUID clientSaleId) {
+        this.clientSaleId = clientSaleId;
+    }
 }
@@ -11,8 +11,11 @@ import java.math.BigDecimal;
 @Table(name = "sale_items")
 public class SaleItem {
     
+    // Sequence-based ids (allocated 50 at a time) let Hibernate batch sale item inserts;
+    // IDENTITY columns force one INSERT round trip per line
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_items_id_seq")
+    @SequenceGenerator(name = "sale_items_id_seq", sequenceName = "sale_items_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -48,6 +51,11 @@ public class SaleItem {
     @Column(name = "batch_id")
     private String batchId;
     
+    // Category of the item when it was sold, kept so reports and the rollup stay put when the item is
+    // recategorised or deleted; null for quick sales and uncategorised items
+    @Column(name = "category_id")
+    private Long categoryId;
+    
     @Column(name = "vat_rate", precision = 5, scale = 2, nullable = false)
     private BigDecimal vatRate;
     
@@ -147,6 +155,14 @@ public class SaleItem {
         this.batchId = batchId;
     }
     
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+    
     public BigDecimal getVatRate() {
         return vatRate;
     }
@@ -0,0 +1,82 @@
+package com.picknpay.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Record of a stock change made by applying a stock take: the adjustment and the resulting stock
+@Entity
+@Table(name = "stock_adjustments", indexes = {
+        @Index(name = "idx_stock_adjustments_stock_take_id", columnList = "stock_take_id"),
+        @Index(name = "idx_stock_adjustments_item_id", columnList = "item_id")
+})
+public class StockAdjustment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "stock_take_id")
+    private Long stockTakeId;
+    
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+    
+    @Column(nullable = false)
+    private Integer adjustment;
+    
+    @Column(name = "new_quantity", nullable = false)
+    private Integer newQuantity;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public StockAdjustment() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getStockTakeId() {
+        return stockTakeId;
+    }
+    
+    public void setStockTakeId(Long stockTakeId) {
+        this.stockTakeId = stockTakeId;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+    
+    public Integer getAdjustment() {
+        return adjustment;
+    }
+    
+    public void setAdjustment(Integer adjustment) {
+        this.adjustment = adjustment;
+    }
+    
+    public Integer getNewQuantity() {
+        return newQuantity;
+    }
+    
+    public void setNewQuantity(Integer newQuantity) {
+        this.newQuantity = newQuantity;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
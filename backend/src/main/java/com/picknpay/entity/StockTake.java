@@ -0,0 +1,100 @@
+package com.picknpay.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A stock-take session: counts are uploaded into stock_take_counts while it is OPEN, then applied
+// to item stock in one pass (APPLIED) or discarded (CANCELLED)
+@Entity
+@Table(name = "stock_takes")
+public class StockTake {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private StockTakeStatus status = StockTakeStatus.OPEN;
+    
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+    
+    @Column(name = "adjusted_items")
+    private Integer adjustedItems;
+    
+    public StockTake() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public StockTake(String name, Long userId) {
+        this();
+        this.name = name;
+        this.userId = userId;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public StockTakeStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(StockTakeStatus status) {
+        this.status = status;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+    
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+    
+    public Integer getAdjustedItems() {
+        return adjustedItems;
+    }
+    
+    public void setAdjustedItems(Integer adjustedItems) {
+        this.adjustedItems = adjustedItems;
+    }
+}
@@ -0,0 +1,81 @@
+package com.picknpay.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Staging row of a stock take: the counted quantity of one barcode, and the item's stock when it was
+// counted (null for a barcode no item has). Written and reconciled in bulk by StockTakeRepositoryCustomImpl
+@Entity
+@Table(name = "stock_take_counts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_take_counts_barcode", columnNames = {"stock_take_id", "barcode"}))
+public class StockTakeCount {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "stock_take_id", nullable = false)
+    private Long stockTakeId;
+    
+    @Column(nullable = false)
+    private String barcode;
+    
+    @Column(name = "counted_quantity", nullable = false)
+    private Integer countedQuantity;
+    
+    @Column(name = "system_quantity")
+    private Integer systemQuantity;
+    
+    @Column(name = "counted_at", nullable = false)
+    private LocalDateTime countedAt;
+    
+    public StockTakeCount() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getStockTakeId() {
+        return stockTakeId;
+    }
+    
+    public void setStockTakeId(Long stockTakeId) {
+        this.stockTakeId = stockTakeId;
+    }
+    
+    public String getBarcode() {
+        return barcode;
+    }
+    
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+    
+    public Integer getCountedQuantity() {
+        return countedQuantity;
+    }
+    
+    public void setCountedQuantity(Integer countedQuantity) {
+        this.countedQuantity = countedQuantity;
+    }
+    
+    public Integer getSystemQuantity() {
+        return systemQuantity;
+    }
+    
+    public void setSystemQuantity(Integer systemQuantity) {
+        this.systemQuantity = systemQuantity;
+    }
+    
+    public LocalDateTime getCountedAt() {
+        return countedAt;
+    }
+    
+    public void setCountedAt(LocalDateTime countedAt) {
+        this.countedAt = countedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.picknpay.entity;
+
+public enum StockTakeStatus {
+    OPEN,
+    APPLIED,
+    CANCELLED
+}
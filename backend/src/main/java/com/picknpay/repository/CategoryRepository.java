@@ -3,7 +3,9 @@ package com.picknpay.repository;
 import com.picknpay.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +13,8 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     
+    // Served from the query cache; Hibernate invalidates it whenever the categories table is written
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Category> findByIsActiveTrueOrderByNameAsc();
     
     Optional<Category> findByNameAndIsActiveTrue(String name);
@@ -2,12 +2,15 @@ package com.picknpay.repository;
 
 import com.picknpay.entity.CompanySettings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
 
 @Repository
 public interface CompanySettingsRepository extends JpaRepository<CompanySettings, Long> {
     
-    // Find the first company settings record (there should only be one)
+    // Find the first company settings record (there should only be one); served from the query cache
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<CompanySettings> findFirstByOrderByIdAsc();
 }
@@ -0,0 +1,31 @@
+package com.picknpay.repository;
+
+import com.picknpay.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long>, DailySalesRollupRepositoryCustom {
+    
+    // Sum rollup rows for a date range (for daily reports): payment method, VAT rate, category id and name
+    // (null when uncategorised), sale count, quantity, gross, VAT, net, split cash part, split card part
+    @Query("SELECT r.paymentMethod, r.vatRate, c.id, c.name, SUM(r.saleCount), SUM(r.quantity), SUM(r.grossAmount), " +
+           "SUM(r.vatAmount), SUM(r.netAmount), SUM(r.splitCashAmount), SUM(r.splitCardAmount) " +
+           "FROM DailySalesRollup r LEFT JOIN Category c ON c.id = r.categoryId " +
+           "WHERE r.rollupDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.paymentMethod, r.vatRate, c.id, c.name")
+    List<Object[]> sumByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    // Same as sumByDateRange, restricted to one user's sales
+    @Query("SELECT r.paymentMethod, r.vatRate, c.id, c.name, SUM(r.saleCount), SUM(r.quantity), SUM(r.grossAmount), " +
+           "SUM(r.vatAmount), SUM(r.netAmount), SUM(r.splitCashAmount), SUM(r.splitCardAmount) " +
+           "FROM DailySalesRollup r LEFT JOIN Category c ON c.id = r.categoryId " +
+           "WHERE r.userId = :userId AND r.rollupDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.paymentMethod, r.vatRate, c.id, c.name")
+    List<Object[]> sumByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,18 @@
+package com.picknpay.repository;
+
+import com.picknpay.entity.DailySalesRollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface DailySalesRollupRepositoryCustom {
+    
+    // Add each delta to the rollup row with the same key, creating the row if needed, in one JDBC batch
+    void applyDeltas(Collection<DailySalesRollup> deltas);
+    
+    // Drop the rows with the given keys once they are back to zero, so removed sales leave no empty rows behind
+    void deleteEmptyRows(Collection<DailySalesRollup> keys);
+    
+    // Recompute the rollup rows for a date range from the sales tables; returns the number of rows written
+    int rebuild(LocalDate startDate, LocalDate endDate);
+}
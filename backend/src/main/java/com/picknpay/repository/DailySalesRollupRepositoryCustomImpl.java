@@ -0,0 +1,116 @@
+package com.picknpay.repository;
+
+import com.picknpay.entity.DailySalesRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+public class DailySalesRollupRepositoryCustomImpl implements DailySalesRollupRepositoryCustom {
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO daily_sales_rollup (rollup_date, user_id, payment_method, vat_rate, category_id, " +
+            "sale_count, split_cash_amount, split_card_amount, quantity, gross_amount, vat_amount, net_amount) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (rollup_date, user_id, payment_method, vat_rate, category_id) DO UPDATE SET " +
+            "sale_count = daily_sales_rollup.sale_count + EXCLUDED.sale_count, " +
+            "split_cash_amount = daily_sales_rollup.split_cash_amount + EXCLUDED.split_cash_amount, " +
+            "split_card_amount = daily_sales_rollup.split_card_amount + EXCLUDED.split_card_amount, " +
+            "quantity = daily_sales_rollup.quantity + EXCLUDED.quantity, " +
+            "gross_amount = daily_sales_rollup.gross_amount + EXCLUDED.gross_amount, " +
+            "vat_amount = daily_sales_rollup.vat_amount + EXCLUDED.vat_amount, " +
+            "net_amount = daily_sales_rollup.net_amount + EXCLUDED.net_amount";
+    
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM daily_sales_rollup " +
+            "WHERE rollup_date = ? AND user_id = ? AND payment_method = ? AND vat_rate = ? AND category_id = ? " +
+            "AND sale_count = 0 AND quantity = 0 AND gross_amount = 0 AND vat_amount = 0 AND net_amount = 0 " +
+            "AND split_cash_amount = 0 AND split_card_amount = 0";
+    
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM daily_sales_rollup WHERE rollup_date BETWEEN ? AND ?";
+    
+    // Sale-level figures (count and split parts) are attributed to each sale's first line, matching applyDeltas callers
+    private static final String REBUILD_SQL =
+            "INSERT INTO daily_sales_rollup (rollup_date, user_id, payment_method, vat_rate, category_id, " +
+            "sale_count, split_cash_amount, split_card_amount, quantity, gross_amount, vat_amount, net_amount) " +
+            "SELECT CAST(s.sale_date AS DATE), COALESCE(s.user_id, 0), s.payment_method, si.vat_rate, COALESCE(si.category_id, 0), " +
+            "SUM(CASE WHEN si.line_number = 1 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN si.line_number = 1 THEN COALESCE(sp.cash_amount, 0) ELSE 0 END), " +
+            "SUM(CASE WHEN si.line_number = 1 THEN COALESCE(sp.card_amount, 0) ELSE 0 END), " +
+            "SUM(si.quantity), SUM(si.total_price), SUM(si.vat_amount), SUM(si.price_excluding_vat) " +
+            "FROM sales s " +
+            "JOIN (SELECT sale_items.*, ROW_NUMBER() OVER (PARTITION BY sale_id ORDER BY id) AS line_number " +
+            "      FROM sale_items WHERE sale_id IN (SELECT id FROM sales WHERE sale_date >= ? AND sale_date < ?)) si ON si.sale_id = s.id " +
+            "LEFT JOIN (SELECT sale_id, " +
+            "           SUM(CASE WHEN payment_method = 'CASH' THEN amount ELSE 0 END) AS cash_amount, " +
+            "           SUM(CASE WHEN payment_method = 'CARD' THEN amount ELSE 0 END) AS card_amount " +
+            "           FROM sale_payments GROUP BY sale_id) sp ON sp.sale_id = s.id AND s.payment_method = 'SPLIT' " +
+            "WHERE s.sale_date >= ? AND s.sale_date < ? " +
+            "GROUP BY CAST(s.sale_date AS DATE), COALESCE(s.user_id, 0), s.payment_method, si.vat_rate, COALESCE(si.category_id, 0)";
+    
+    // Rows are written in key order so two tills whose sales touch overlapping rollup rows always lock
+    // them in the same order and cannot deadlock each other, as ItemRepositoryCustomImpl does for stock
+    private static final Comparator<DailySalesRollup> KEY_ORDER =
+            Comparator.comparing(DailySalesRollup::getRollupDate)
+                    .thenComparing(DailySalesRollup::getUserId)
+                    .thenComparing(DailySalesRollup::getPaymentMethod)
+                    .thenComparing(DailySalesRollup::getVatRate)
+                    .thenComparing(DailySalesRollup::getCategoryId);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void applyDeltas(Collection<DailySalesRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (DailySalesRollup delta : inKeyOrder(deltas)) {
+            batchArgs.add(new Object[] {
+                delta.getRollupDate(), delta.getUserId(), delta.getPaymentMethod().name(), delta.getVatRate(), delta.getCategoryId(),
+                delta.getSaleCount(), delta.getSplitCashAmount(), delta.getSplitCardAmount(),
+                delta.getQuantity(), delta.getGrossAmount(), delta.getVatAmount(), delta.getNetAmount()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+    }
+    
+    @Override
+    public void deleteEmptyRows(Collection<DailySalesRollup> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> batchArgs = new ArrayList<>(keys.size());
+        for (DailySalesRollup key : inKeyOrder(keys)) {
+            batchArgs.add(new Object[] {
+                key.getRollupDate(), key.getUserId(), key.getPaymentMethod().name(), key.getVatRate(), key.getCategoryId()
+            });
+        }
+        jdbcTemplate.batchUpdate(DELETE_EMPTY_SQL, batchArgs);
+    }
+    
+    private static List<DailySalesRollup> inKeyOrder(Collection<DailySalesRollup> rows) {
+        List<DailySalesRollup> sorted = new ArrayList<>(rows);
+        sorted.sort(KEY_ORDER);
+        return sorted;
+    }
+    
+    @Override
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        jdbcTemplate.update(DELETE_RANGE_SQL, startDate, endDate);
+        
+        // Whole days: from the start of startDate up to (not including) the day after endDate
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        return jdbcTemplate.update(REBUILD_SQL, from, to, from, to);
+    }
+}
@@ -4,22 +4,71 @@ import com.picknpay.entity.Item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long>, PagingAndSortingRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, PagingAndSortingRepository<Item, Long>, ItemRepositoryCustom {
     
     Optional<Item> findByBarcode(String barcode);
     
+    // Barcode lookup with the category loaded in the same query
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.category WHERE i.barcode = :barcode")
+    Optional<Item> findWithCategoryByBarcode(@Param("barcode") String barcode);
+    
+    // Items holding any of the barcodes, with their categories (for indexing imported items)
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.category WHERE i.barcode IN :barcodes")
+    List<Item> findWithCategoryByBarcodeIn(@Param("barcodes") Collection<String> barcodes);
+    
+    // Which of the barcodes are already in use
+    @Query("SELECT i.barcode FROM Item i WHERE i.barcode IN :barcodes")
+    List<String> findExistingBarcodes(@Param("barcodes") Collection<String> barcodes);
+    
+    // All items with their categories in one query (for warming the barcode index)
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.category")
+    List<Item> findAllWithCategory();
+    
+    // Items created or updated after the given time, with their categories (for catalogue delta sync)
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.category WHERE i.updatedAt > :since")
+    List<Item> findChangedSinceWithCategory(@Param("since") LocalDateTime since);
+    
+    // Mark a category's items as changed so delta sync picks up a renamed category
+    @Modifying
+    @Query("UPDATE Item i SET i.updatedAt = :updatedAt WHERE i.category.id = :categoryId")
+    int touchItemsInCategory(@Param("categoryId") Long categoryId, @Param("updatedAt") LocalDateTime updatedAt);
+    
     List<Item> findByNameContainingIgnoreCase(String name);
     
+    // Ranked substring search over name, barcode and description, served by the pg_trgm GIN indexes.
+    // Exact barcode first, then name prefix, barcode prefix, then closest names by trigram similarity
+    @Query(value = "SELECT i.* FROM items i " +
+           "WHERE i.name ILIKE :pattern OR i.barcode ILIKE :pattern OR i.description ILIKE :pattern " +
+           "ORDER BY CASE WHEN i.barcode = :term THEN 0 " +
+           "WHEN lower(i.name) LIKE :namePrefix THEN 1 " +
+           "WHEN i.barcode LIKE :barcodePrefix THEN 2 ELSE 3 END, " +
+           "similarity(i.name, :term) DESC, i.name, i.id " +
+           "LIMIT :limit", nativeQuery = true)
+    List<Item> searchBySubstring(@Param("term") String term, @Param("pattern") String pattern,
+                                 @Param("namePrefix") String namePrefix, @Param("barcodePrefix") String barcodePrefix,
+                                 @Param("limit") int limit);
+    
+    // Prefix search for terms too short for trigrams, served by the text_pattern_ops indexes
+    @Query(value = "SELECT i.* FROM items i " +
+           "WHERE lower(i.name) LIKE :namePrefix OR i.barcode LIKE :barcodePrefix " +
+           "ORDER BY CASE WHEN lower(i.name) LIKE :namePrefix THEN 0 ELSE 1 END, i.name, i.id " +
+           "LIMIT :limit", nativeQuery = true)
+    List<Item> searchByPrefix(@Param("namePrefix") String namePrefix, @Param("barcodePrefix") String barcodePrefix,
+                              @Param("limit") int limit);
+    
     List<Item> findByCategoryId(Long categoryId);
     
     @Query("SELECT i FROM Item i WHERE i.stockQuantity > 0")
@@ -27,4 +76,10 @@ public interface ItemRepository extends JpaRepository<Item, Long>, PagingAndSort
     
     @Query("SELECT i FROM Item i WHERE i.stockQuantity <= :threshold")
     List<Item> findLowStockItems(@Param("threshold") Integer threshold);
+    
+    // Apply a stock change as a single conditional UPDATE; the row is left untouched if stock would go negative
+    @Modifying
+    @Query("UPDATE Item i SET i.stockQuantity = i.stockQuantity + :quantityChange, i.updatedAt = :updatedAt " +
+           "WHERE i.id = :id AND i.stockQuantity + :quantityChange >= 0")
+    int adjustStock(@Param("id") Long id, @Param("quantityChange") Integer quantityChange, @Param("updatedAt") LocalDateTime updatedAt);
 }
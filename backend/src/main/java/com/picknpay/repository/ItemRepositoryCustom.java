@@ -0,0 +1,18 @@
+package com.picknpay.repository;
+
+import com.picknpay.entity.Item;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ItemRepositoryCustom {
+    
+    // Atomically decrement stock for several items in one JDBC batch.
+    // Each row is only updated if it still holds enough stock; returns the ids that did not.
+    // A negative quantity returns stock and always applies.
+    List<Long> decrementStock(Map<Long, Integer> quantitiesByItemId);
+    
+    // Insert the items in one JDBC batch; an item whose barcode is already in use updates that item instead.
+    // A null stock quantity keeps the existing item's stock (new items start at 0)
+    void upsertByBarcode(List<Item> items);
+}
@@ -0,0 +1,85 @@
+package com.picknpay.repository;
+
+import com.picknpay.entity.Item;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE items SET stock_quantity = stock_quantity - ?, updated_at = ? " +
+            "WHERE id = ? AND stock_quantity >= ?";
+    
+    // Rows without a barcode never conflict and are always inserted
+    private static final String UPSERT_BY_BARCODE_SQL =
+            "INSERT INTO items (name, description, price, stock_quantity, barcode, vat_rate, unit_price_excluding_vat, " +
+            "unit_vat_amount, batch_id, general_expiry_date, category_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, COALESCE(?, 0), ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (barcode) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, " +
+            "price = EXCLUDED.price, stock_quantity = COALESCE(?, items.stock_quantity), vat_rate = EXCLUDED.vat_rate, " +
+            "unit_price_excluding_vat = EXCLUDED.unit_price_excluding_vat, unit_vat_amount = EXCLUDED.unit_vat_amount, " +
+            "batch_id = EXCLUDED.batch_id, general_expiry_date = EXCLUDED.general_expiry_date, " +
+            "category_id = EXCLUDED.category_id, updated_at = EXCLUDED.updated_at";
+    
+    private static final int[] UPSERT_BY_BARCODE_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.INTEGER, Types.VARCHAR, Types.NUMERIC, Types.NUMERIC,
+            Types.NUMERIC, Types.VARCHAR, Types.DATE, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public List<Long> decrementStock(Map<Long, Integer> quantitiesByItemId) {
+        if (quantitiesByItemId.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Update rows in id order so two tills selling overlapping baskets always lock
+        // them in the same order and cannot deadlock each other
+        List<Long> itemIds = new ArrayList<>(new TreeMap<>(quantitiesByItemId).keySet());
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<Object[]> batchArgs = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            Integer quantity = quantitiesByItemId.get(itemId);
+            batchArgs.add(new Object[] { quantity, now, itemId, quantity });
+        }
+        
+        int[] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batchArgs);
+        
+        List<Long> insufficientStock = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                insufficientStock.add(itemIds.get(i));
+            }
+        }
+        return insufficientStock;
+    }
+    
+    @Override
+    public void upsertByBarcode(List<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<Object[]> batchArgs = new ArrayList<>(items.size());
+        for (Item item : items) {
+            Long categoryId = item.getCategory() != null ? item.getCategory().getId() : null;
+            batchArgs.add(new Object[] {
+                    item.getName(), item.getDescription(), item.getPrice(), item.getStockQuantity(), item.getBarcode(),
+                    item.getVatRate(), item.getUnitPriceExcludingVat(), item.getUnitVatAmount(), item.getBatchId(),
+                    item.getGeneralExpiryDate(), categoryId, now, now, item.getStockQuantity()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_BY_BARCODE_SQL, batchArgs, UPSERT_BY_BARCODE_TYPES);
+    }
+}
@@ -0,0 +1,23 @@
+package com.picknpay.repository;
+
+import com.picknpay.entity.ItemTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemTombstoneRepository extends JpaRepository<ItemTombstone, Long> {
+    
+    // Ids of items deleted after the given time (for catalogue delta sync)
+    @Query("SELECT t.itemId FROM ItemTombstone t WHERE t.deletedAt > :since")
+    List<Long> findItemIdsDeletedAfter(@Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM ItemTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
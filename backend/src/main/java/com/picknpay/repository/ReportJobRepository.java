@@ -0,0 +1,68 @@
+package com.picknpay.repository;
+
+import com.picknpay.entity.ReportJob;
+import com.picknpay.entity.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    
+    List<ReportJob> findTop50ByOrderByRequestedAtDesc();
+    
+    // Jobs for exactly this report, newest first; a null userId matches jobs for all users
+    List<ReportJob> findTop10ByStartDateAndEndDateAndUserIdAndStatusInOrderByRequestedAtDesc(
+            LocalDate startDate, LocalDate endDate, Long userId, Collection<ReportJobStatus> statuses);
+    
+    List<ReportJob> findByStatusInOrderByRequestedAtAsc(Collection<ReportJobStatus> statuses);
+    
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.picknpay.entity.ReportJobStatus.RUNNING, j.startedAt = :startedAt " +
+           "WHERE j.id = :id AND j.status = com.picknpay.entity.ReportJobStatus.QUEUED")
+    int markRunning(@Param("id") Long id, @Param("startedAt") LocalDateTime startedAt);
+    
+    // Store the result; a job marked STALE while it ran keeps that status
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.result = :result, j.completedAt = :completedAt, j.status = " +
+           "CASE WHEN j.status = com.picknpay.entity.ReportJobStatus.RUNNING THEN com.picknpay.entity.ReportJobStatus.COMPLETED " +
+           "ELSE j.status END WHERE j.id = :id")
+    int complete(@Param("id") Long id, @Param("result") String result, @Param("completedAt") LocalDateTime completedAt);
+    
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.picknpay.entity.ReportJobStatus.FAILED, j.error = :error, " +
+           "j.completedAt = :completedAt WHERE j.id = :id")
+    int fail(@Param("id") Long id, @Param("error") String error, @Param("completedAt") LocalDateTime completedAt);
+    
+    // Jobs left running by a restart go back to the queue
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.picknpay.entity.ReportJobStatus.QUEUED, j.startedAt = NULL " +
+           "WHERE j.status = com.picknpay.entity.ReportJobStatus.RUNNING")
+    int requeueRunning();
+    
+    // Outdate results covering a day on which a sale of the given user (null: no user) changed
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.picknpay.entity.ReportJobStatus.STALE " +
+           "WHERE j.status IN (com.picknpay.entity.ReportJobStatus.RUNNING, com.picknpay.entity.ReportJobStatus.COMPLETED) " +
+           "AND j.startDate <= :date AND j.endDate >= :date AND (j.userId IS NULL OR j.userId = :userId)")
+    int markStale(@Param("date") LocalDate date, @Param("userId") Long userId);
+    
+    // Outdate results overlapping a date range, for every user
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = com.picknpay.entity.ReportJobStatus.STALE " +
+           "WHERE j.status IN (com.picknpay.entity.ReportJobStatus.RUNNING, com.picknpay.entity.ReportJobStatus.COMPLETED) " +
+           "AND j.startDate <= :endDate AND j.endDate >= :startDate")
+    int markStaleBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Modifying
+    @Query("DELETE FROM ReportJob j WHERE j.requestedAt < :cutoff " +
+           "AND j.status NOT IN (com.picknpay.entity.ReportJobStatus.QUEUED, com.picknpay.entity.ReportJobStatus.RUNNING)")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
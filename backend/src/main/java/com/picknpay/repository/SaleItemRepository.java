@@ -2,8 +2,35 @@ package com.picknpay.repository;
 
 import com.picknpay.entity.SaleItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
+    
+    // Sale line totals grouped by VAT rate and category (for daily reports): VAT rate, category id and
+    // name (null for quick sales), quantity, gross, VAT amount, price excluding VAT
+    @Query("SELECT si.vatRate, c.id, c.name, SUM(si.quantity), SUM(si.totalPrice), SUM(si.vatAmount), SUM(si.priceExcludingVat) " +
+           "FROM SaleItem si JOIN si.sale s LEFT JOIN Category c ON c.id = si.categoryId " +
+           "WHERE s.saleDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY si.vatRate, c.id, c.name")
+    List<Object[]> sumLinesByVatRateAndCategory(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Same as sumLinesByVatRateAndCategory, restricted to one user's sales
+    @Query("SELECT si.vatRate, c.id, c.name, SUM(si.quantity), SUM(si.totalPrice), SUM(si.vatAmount), SUM(si.priceExcludingVat) " +
+           "FROM SaleItem si JOIN si.sale s LEFT JOIN Category c ON c.id = si.categoryId " +
+           "WHERE s.user.id = :userId AND s.saleDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY si.vatRate, c.id, c.name")
+    List<Object[]> sumLinesByVatRateAndCategoryAndUserId(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Delete sale lines in one statement (lines removed when a sale is edited)
+    @Modifying
+    @Query("DELETE FROM SaleItem si WHERE si.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -2,16 +2,29 @@ package com.picknpay.repository;
 
 import com.picknpay.entity.Sale;
 import com.picknpay.entity.PaymentMethod;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface SaleRepository extends JpaRepository<Sale, Long> {
+public interface SaleRepository extends JpaRepository<Sale, Long>, SaleRepositoryCustom {
+    
+    // Sales already recorded under till-generated ids (for idempotent submission)
+    Optional<Sale> findByClientSaleId(UUID clientSaleId);
+    
+    List<Sale> findByClientSaleIdIn(Collection<UUID> clientSaleIds);
     
     // Get all sales ordered by sale date descending
     List<Sale> findAllByOrderBySaleDateDesc();
@@ -20,17 +33,9 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
     @Query("SELECT s FROM Sale s WHERE s.saleDate BETWEEN :startDate AND :endDate ORDER BY s.saleDate DESC")
     List<Sale> findSalesByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    // Get sales by date range with salePayments eagerly fetched (for daily reports)
-    @Query("SELECT DISTINCT s FROM Sale s LEFT JOIN FETCH s.salePayments WHERE s.saleDate BETWEEN :startDate AND :endDate ORDER BY s.saleDate DESC")
-    List<Sale> findSalesByDateRangeWithPayments(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-    
     // Get sales by user ID and date range
     @Query("SELECT s FROM Sale s WHERE s.user.id = :userId AND s.saleDate BETWEEN :startDate AND :endDate ORDER BY s.saleDate DESC")
     List<Sale> findSalesByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-
-    // Get sales by user ID and date range with salePayments eagerly fetched (for daily reports)
-    @Query("SELECT DISTINCT s FROM Sale s LEFT JOIN FETCH s.salePayments WHERE s.user.id = :userId AND s.saleDate BETWEEN :startDate AND :endDate ORDER BY s.saleDate DESC")
-    List<Sale> findSalesByUserIdAndDateRangeWithPayments(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Get sales by user ID
     @Query("SELECT s FROM Sale s WHERE s.user.id = :userId ORDER BY s.saleDate DESC")
@@ -60,6 +65,52 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
     @Query("SELECT s FROM Sale s WHERE s.user.id = :userId AND s.saleDate BETWEEN :startDate AND :endDate AND s.paymentMethod = :paymentMethod ORDER BY s.saleDate DESC")
     List<Sale> findSalesByUserIdAndDateRangeAndPaymentMethod(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, @Param("paymentMethod") PaymentMethod paymentMethod);
     
+    // Count and sum sales by payment method (for daily reports)
+    @Query("SELECT s.paymentMethod, COUNT(s), SUM(s.totalAmount) FROM Sale s " +
+           "WHERE s.saleDate BETWEEN :startDate AND :endDate GROUP BY s.paymentMethod")
+    List<Object[]> sumSalesByPaymentMethodAndDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Same as sumSalesByPaymentMethodAndDateRange, restricted to one user's sales
+    @Query("SELECT s.paymentMethod, COUNT(s), SUM(s.totalAmount) FROM Sale s " +
+           "WHERE s.user.id = :userId AND s.saleDate BETWEEN :startDate AND :endDate GROUP BY s.paymentMethod")
+    List<Object[]> sumSalesByPaymentMethodAndUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Sum the cash and card parts of split payments by payment method (for daily reports)
+    @Query("SELECT p.paymentMethod, SUM(p.amount) FROM SalePayment p " +
+           "WHERE p.sale.paymentMethod = com.picknpay.entity.PaymentMethod.SPLIT AND p.sale.saleDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY p.paymentMethod")
+    List<Object[]> sumSplitPaymentsByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Same as sumSplitPaymentsByDateRange, restricted to one user's sales
+    @Query("SELECT p.paymentMethod, SUM(p.amount) FROM SalePayment p " +
+           "WHERE p.sale.paymentMethod = com.picknpay.entity.PaymentMethod.SPLIT AND p.sale.user.id = :userId AND p.sale.saleDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY p.paymentMethod")
+    List<Object[]> sumSplitPaymentsByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Keyset page of sales in a date range, newest first, strictly after the (cursorDate, cursorId) position
+    @Query("SELECT s FROM Sale s WHERE s.saleDate BETWEEN :startDate AND :endDate " +
+           "AND (s.saleDate < :cursorDate OR (s.saleDate = :cursorDate AND s.id < :cursorId)) " +
+           "ORDER BY s.saleDate DESC, s.id DESC")
+    List<Sale> findSalesPageByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                        @Param("cursorDate") LocalDateTime cursorDate, @Param("cursorId") Long cursorId, Pageable pageable);
+    
+    // Same as findSalesPageByDateRange, restricted to one user's sales
+    @Query("SELECT s FROM Sale s WHERE s.user.id = :userId AND s.saleDate BETWEEN :startDate AND :endDate " +
+           "AND (s.saleDate < :cursorDate OR (s.saleDate = :cursorDate AND s.id < :cursorId)) " +
+           "ORDER BY s.saleDate DESC, s.id DESC")
+    List<Sale> findSalesPageByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                                 @Param("cursorDate") LocalDateTime cursorDate, @Param("cursorId") Long cursorId, Pageable pageable);
+    
+    // Stream sales in a date range oldest first through a database cursor (must be consumed inside a transaction)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT s FROM Sale s WHERE s.saleDate BETWEEN :startDate AND :endDate ORDER BY s.saleDate, s.id")
+    Stream<Sale> streamSalesByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Same as streamSalesByDateRange, restricted to one user's sales
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT s FROM Sale s WHERE s.user.id = :userId AND s.saleDate BETWEEN :startDate AND :endDate ORDER BY s.saleDate, s.id")
+    Stream<Sale> streamSalesByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
     // Check if user has any sales
     @Query("SELECT COUNT(s) > 0 FROM Sale s WHERE s.user.id = :userId")
     boolean existsByUserId(@Param("userId") Long userId);
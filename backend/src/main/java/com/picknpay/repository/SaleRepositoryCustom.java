@@ -0,0 +1,19 @@
+package com.picknpay.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface SaleRepositoryCustom {
+    
+    // Column order of the rows passed to exportSaleLines
+    List<String> SALE_LINE_EXPORT_COLUMNS = List.of(
+            "sale_id", "sale_date", "cashier", "payment_method", "subtotal_amount", "discount_amount", "total_amount",
+            "split_cash_amount", "split_card_amount", "item_id", "item_name", "item_barcode", "batch_id",
+            "quantity", "unit_price", "line_total", "vat_rate", "vat_amount", "price_excluding_vat");
+    
+    // Hand one row per sale line (sale columns repeated) to the consumer, oldest sale first, reading through a
+    // forward-only cursor so memory use does not grow with the range. userId is optional. Must run inside a
+    // transaction, which PostgreSQL needs to fetch in batches instead of all at once
+    void exportSaleLines(LocalDateTime from, LocalDateTime to, Long userId, Consumer<Object[]> consumer);
+}
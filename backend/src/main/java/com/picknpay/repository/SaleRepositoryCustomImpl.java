@@ -0,0 +1,58 @@
+package com.picknpay.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public class SaleRepositoryCustomImpl implements SaleRepositoryCustom {
+    
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    
+    // Range is from inclusive, to exclusive. Split payment parts are looked up per sale, only for split sales
+    private static final String EXPORT_SALE_LINES_SQL =
+            "SELECT s.id, s.sale_date, u.username, s.payment_method, s.subtotal_amount, s.discount_amount, s.total_amount, " +
+            "sp.cash_amount, sp.card_amount, si.item_id, si.item_name, si.item_barcode, si.batch_id, " +
+            "si.quantity, si.unit_price, si.total_price, si.vat_rate, si.vat_amount, si.price_excluding_vat " +
+            "FROM sales s " +
+            "LEFT JOIN users u ON u.id = s.user_id " +
+            "LEFT JOIN sale_items si ON si.sale_id = s.id " +
+            "LEFT JOIN LATERAL (SELECT SUM(CASE WHEN p.payment_method = 'CASH' THEN p.amount ELSE 0 END) AS cash_amount, " +
+            "                          SUM(CASE WHEN p.payment_method = 'CARD' THEN p.amount ELSE 0 END) AS card_amount " +
+            "                   FROM sale_payments p WHERE p.sale_id = s.id AND s.payment_method = 'SPLIT') sp ON TRUE " +
+            "WHERE s.sale_date >= ? AND s.sale_date < ? AND (CAST(? AS BIGINT) IS NULL OR s.user_id = ?) " +
+            "ORDER BY s.sale_date, s.id, si.id";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void exportSaleLines(LocalDateTime from, LocalDateTime to, Long userId, Consumer<Object[]> consumer) {
+        int columns = SALE_LINE_EXPORT_COLUMNS.size();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SALE_LINES_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            statement.setObject(3, userId, Types.BIGINT);
+            statement.setObject(4, userId, Types.BIGINT);
+            return statement;
+        }, rs -> {
+            Object[] row = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            // Timestamps as local date-times, like the rest of the API
+            if (row[1] instanceof Timestamp) {
+                row[1] = ((Timestamp) row[1]).toLocalDateTime();
+            }
+            consumer.accept(row);
+        });
+    }
+}
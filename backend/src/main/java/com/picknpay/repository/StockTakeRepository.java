@@ -0,0 +1,22 @@
+package com.picknpay.repository;
+
+import com.picknpay.entity.StockTake;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockTakeRepository extends JpaRepository<StockTake, Long>, StockTakeRepositoryCustom {
+    
+    List<StockTake> findAllByOrderByCreatedAtDesc();
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StockTake s WHERE s.id = :id")
+    Optional<StockTake> findByIdForUpdate(@Param("id") Long id);
+}
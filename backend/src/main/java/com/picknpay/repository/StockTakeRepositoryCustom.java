@@ -0,0 +1,23 @@
+package com.picknpay.repository;
+
+import com.picknpay.dto.StockTakeVarianceDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface StockTakeRepositoryCustom {
+    
+    // Stage counted quantities by barcode in one JDBC batch, with each item's current stock alongside.
+    // A barcode counted again replaces its earlier count
+    void upsertCounts(Long stockTakeId, Map<String, Integer> quantitiesByBarcode, LocalDateTime countedAt);
+    
+    long countCounts(Long stockTakeId);
+    
+    // Counted barcodes whose count differs from the stock recorded with it, or that match no item
+    List<StockTakeVarianceDTO> findVariances(Long stockTakeId);
+    
+    // Apply the variances to item stock in one statement and log each change in stock_adjustments.
+    // Returns the barcodes of the adjusted items
+    List<String> applyVariances(Long stockTakeId, LocalDateTime appliedAt);
+}
@@ -0,0 +1,88 @@
+package com.picknpay.repository;
+
+import com.picknpay.dto.StockTakeVarianceDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class StockTakeRepositoryCustomImpl implements StockTakeRepositoryCustom {
+    
+    private static final String UPSERT_COUNT_SQL =
+            "INSERT INTO stock_take_counts (stock_take_id, barcode, counted_quantity, system_quantity, counted_at) " +
+            "VALUES (?, ?, ?, (SELECT stock_quantity FROM items WHERE barcode = ?), ?) " +
+            "ON CONFLICT (stock_take_id, barcode) DO UPDATE SET counted_quantity = EXCLUDED.counted_quantity, " +
+            "system_quantity = EXCLUDED.system_quantity, counted_at = EXCLUDED.counted_at";
+    
+    private static final String COUNT_COUNTS_SQL =
+            "SELECT COUNT(*) FROM stock_take_counts WHERE stock_take_id = ?";
+    
+    private static final String VARIANCES_SQL =
+            "SELECT c.barcode, i.id, i.name, c.system_quantity, c.counted_quantity " +
+            "FROM stock_take_counts c LEFT JOIN items i ON i.barcode = c.barcode " +
+            "WHERE c.stock_take_id = ? AND (c.system_quantity IS NULL OR c.counted_quantity <> c.system_quantity) " +
+            "ORDER BY c.barcode";
+    
+    // Each item moves by its count minus the stock recorded when it was counted, so sales rung up between
+    // counting and applying are kept. Items are locked in id order, like sale stock decrements, to avoid
+    // deadlocking with tills. The logged adjustment and the new stock are written by the same statement
+    private static final String APPLY_VARIANCES_SQL =
+            "WITH variances AS (" +
+            "  SELECT i.id AS item_id, c.counted_quantity - c.system_quantity AS adjustment " +
+            "  FROM stock_take_counts c JOIN items i ON i.barcode = c.barcode " +
+            "  WHERE c.stock_take_id = ? AND c.system_quantity IS NOT NULL AND c.counted_quantity <> c.system_quantity" +
+            "), locked AS (" +
+            "  SELECT i.id FROM items i JOIN variances v ON v.item_id = i.id ORDER BY i.id FOR UPDATE OF i" +
+            "), adjusted AS (" +
+            "  UPDATE items i SET stock_quantity = GREATEST(i.stock_quantity + v.adjustment, 0), updated_at = ? " +
+            "  FROM variances v JOIN locked l ON l.id = v.item_id WHERE i.id = v.item_id " +
+            "  RETURNING i.id, i.barcode, i.stock_quantity, v.adjustment" +
+            "), logged AS (" +
+            "  INSERT INTO stock_adjustments (stock_take_id, item_id, adjustment, new_quantity, created_at) " +
+            "  SELECT ?, id, adjustment, stock_quantity, ? FROM adjusted" +
+            ") " +
+            "SELECT barcode FROM adjusted";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void upsertCounts(Long stockTakeId, Map<String, Integer> quantitiesByBarcode, LocalDateTime countedAt) {
+        if (quantitiesByBarcode.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByBarcode.size());
+        quantitiesByBarcode.forEach((barcode, quantity) ->
+                batchArgs.add(new Object[] { stockTakeId, barcode, quantity, barcode, countedAt }));
+        jdbcTemplate.batchUpdate(UPSERT_COUNT_SQL, batchArgs);
+    }
+    
+    @Override
+    public long countCounts(Long stockTakeId) {
+        Long count = jdbcTemplate.queryForObject(COUNT_COUNTS_SQL, Long.class, stockTakeId);
+        return count != null ? count : 0;
+    }
+    
+    @Override
+    public List<StockTakeVarianceDTO> findVariances(Long stockTakeId) {
+        return jdbcTemplate.query(VARIANCES_SQL, (rs, rowNum) -> {
+            Integer systemQuantity = (Integer) rs.getObject(4);
+            int countedQuantity = rs.getInt(5);
+            return new StockTakeVarianceDTO(
+                    rs.getString(1),
+                    (Long) rs.getObject(2),
+                    rs.getString(3),
+                    systemQuantity,
+                    countedQuantity,
+                    systemQuantity != null ? countedQuantity - systemQuantity : null);
+        }, stockTakeId);
+    }
+    
+    @Override
+    public List<String> applyVariances(Long stockTakeId, LocalDateTime appliedAt) {
+        return jdbcTemplate.queryForList(APPLY_VARIANCES_SQL, String.class, stockTakeId, appliedAt, stockTakeId, appliedAt);
+    }
+}
@@ -0,0 +1,27 @@
+package com.picknpay.scheduler;
+
+import com.picknpay.service.ItemService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ItemTombstoneScheduler {
+    
+    @Autowired
+    private ItemService itemService;
+    
+    /**
+     * Remove item tombstones older than the delta sync retention period at 3:30 AM every day.
+     * Tills with an older sync token receive the full catalogue instead.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void pruneTombstones() {
+        try {
+            itemService.pruneTombstones();
+        } catch (Exception e) {
+            System.err.println("Error in item tombstone scheduler: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
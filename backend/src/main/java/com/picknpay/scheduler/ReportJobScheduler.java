@@ -0,0 +1,27 @@
+package com.picknpay.scheduler;
+
+import com.picknpay.service.ReportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReportJobScheduler {
+    
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    /**
+     * Remove finished report jobs and their stored results once they are older than the retention period,
+     * at 3:45 AM every day.
+     */
+    @Scheduled(cron = "0 45 3 * * *")
+    public void pruneReportJobs() {
+        try {
+            reportJobService.pruneJobs();
+        } catch (Exception e) {
+            System.err.println("Error in report job scheduler: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
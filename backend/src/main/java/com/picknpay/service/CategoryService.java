@@ -3,9 +3,12 @@ package com.picknpay.service;
 import com.picknpay.dto.CategoryDTO;
 import com.picknpay.entity.Category;
 import com.picknpay.repository.CategoryRepository;
+import com.picknpay.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -16,6 +19,12 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemBarcodeIndex barcodeIndex;
+
     public List<CategoryDTO> getAllActiveCategories() {
         return categoryRepository.findByIsActiveTrueOrderByNameAsc()
                 .stream()
@@ -43,6 +52,7 @@ public class CategoryService {
         return convertToDTO(savedCategory);
     }
 
+    @Transactional
     public Optional<CategoryDTO> updateCategory(Long id, CategoryDTO categoryDTO) {
         return categoryRepository.findById(id)
                 .map(existingCategory -> {
@@ -62,6 +72,9 @@ public class CategoryService {
                     }
                     existingCategory.setVatRate(vatRate);
                     Category updatedCategory = categoryRepository.save(existingCategory);
+                    barcodeIndex.renameCategory(updatedCategory.getId(), updatedCategory.getName());
+                    // Items carry the category name, so tills syncing deltas need to re-fetch them
+                    itemRepository.touchItemsInCategory(updatedCategory.getId(), LocalDateTime.now());
                     return convertToDTO(updatedCategory);
                 });
     }
@@ -1,12 +1,20 @@
 package com.picknpay.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.picknpay.dto.CompanySettingsDTO;
 import com.picknpay.entity.CompanySettings;
 import com.picknpay.repository.CompanySettingsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Transactional
@@ -15,24 +23,40 @@ public class CompanySettingsService {
     @Autowired
     private CompanySettingsRepository companySettingsRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DisplayEventHub displayEventHub;
+
+    // In-memory copy served to readers; loaded on first use and replaced after every committed update
+    private volatile VersionedSettings current;
+
+    private final AtomicLong version = new AtomicLong();
+
+    // Guards loading and publishing. A lock rather than synchronized: load() queries the database while
+    // holding it, which would pin a virtual thread to its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Transactional(propagation = Propagation.SUPPORTS)
     public CompanySettingsDTO getCompanySettings() {
-        Optional<CompanySettings> settingsOpt = companySettingsRepository.findFirstByOrderByIdAsc();
-        CompanySettings settings;
-        
-        if (settingsOpt.isEmpty()) {
-            // Create default settings if none exist
-            settings = new CompanySettings("ADAMS GREEN", "");
-            settings = companySettingsRepository.save(settings);
-        } else {
-            settings = settingsOpt.get();
+        return getVersionedSettings().getSettings();
+    }
+
+    // Current settings with their pre-serialised JSON and ETag; does not touch the database once loaded
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public VersionedSettings getVersionedSettings() {
+        VersionedSettings settings = current;
+        if (settings == null) {
+            settings = load();
         }
-        return convertToDTO(settings);
+        return settings;
     }
 
     public CompanySettingsDTO updateCompanySettings(CompanySettingsDTO settingsDTO) {
         Optional<CompanySettings> settingsOpt = companySettingsRepository.findFirstByOrderByIdAsc();
         CompanySettings settings;
-        
+
         if (settingsOpt.isEmpty()) {
             // Create new settings if none exist
             settings = new CompanySettings(settingsDTO.getCompanyName(), settingsDTO.getAddress());
@@ -42,12 +66,109 @@ public class CompanySettingsService {
             settings.setCompanyName(settingsDTO.getCompanyName());
             settings.setAddress(settingsDTO.getAddress());
         }
-        
+
         settings = companySettingsRepository.save(settings);
-        return convertToDTO(settings);
+        CompanySettingsDTO updated = convertToDTO(settings);
+        afterCommit(() -> {
+            publish(updated);
+            displayEventHub.publish(DisplayEventHub.SETTINGS_TOPIC, "settings", updated);
+        });
+        return updated;
+    }
+
+    private VersionedSettings load() {
+        lock.lock();
+        try {
+            if (current != null) {
+                return current;
+            }
+            Optional<CompanySettings> settingsOpt = companySettingsRepository.findFirstByOrderByIdAsc();
+            CompanySettings settings;
+
+            if (settingsOpt.isEmpty()) {
+                // Create default settings if none exist
+                settings = new CompanySettings("ADAMS GREEN", "");
+                settings = companySettingsRepository.save(settings);
+            } else {
+                settings = settingsOpt.get();
+            }
+            return publish(convertToDTO(settings));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private VersionedSettings publish(CompanySettingsDTO settings) {
+        lock.lock();
+        try {
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(settings);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Error serialising company settings: " + e.getMessage());
+            }
+            String eTag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            current = new VersionedSettings(version.incrementAndGet(), settings, json, eTag);
+            return current;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static CompanySettingsDTO copy(CompanySettingsDTO settings) {
+        return new CompanySettingsDTO(settings.getId(), settings.getCompanyName(), settings.getAddress());
     }
 
     private CompanySettingsDTO convertToDTO(CompanySettings settings) {
         return new CompanySettingsDTO(settings.getId(), settings.getCompanyName(), settings.getAddress());
     }
+
+    /**
+     * An immutable snapshot of the company settings. The ETag is derived from the JSON body,
+     * so it is strong and stays the same across restarts while the settings do not change.
+     */
+    public static final class VersionedSettings {
+
+        private final long version;
+        private final CompanySettingsDTO settings;
+        private final byte[] json;
+        private final String eTag;
+
+        private VersionedSettings(long version, CompanySettingsDTO settings, byte[] json, String eTag) {
+            this.version = version;
+            this.settings = settings;
+            this.json = json;
+            this.eTag = eTag;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public CompanySettingsDTO getSettings() {
+            return copy(settings);
+        }
+
+        // Serialised settings; callers must not modify the array
+        public byte[] getJson() {
+            return json;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
 }
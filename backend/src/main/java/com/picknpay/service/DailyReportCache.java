@@ -0,0 +1,156 @@
+package com.picknpay.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.picknpay.dto.DailyReportDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of daily reports for closed periods (ranges ending before today), keyed by date range
+ * and user, bounded by size and time to live. A cached report only changes when a sale on one of its days
+ * does, so entries are dropped precisely: DailySalesRollupService reports every changed sale's day and user,
+ * and the reports covering it are invalidated once the change commits. Cached reports are shared and must
+ * not be modified by callers.
+ */
+@Service
+public class DailyReportCache {
+    
+    private final Cache<ReportKey, DailyReportDTO> reports;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    // Bumped by every invalidation; a report computed across one is not cached, as it may predate the change
+    private final AtomicLong generation = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    
+    public DailyReportCache(PlatformTransactionManager transactionManager,
+                            @Value("${reports.cache.max-size:1000}") long maxSize,
+                            @Value("${reports.cache.ttl:PT12H}") Duration ttl) {
+        this.reports = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    // The cached report for the range and user (null: all users), else the loader's result, computed in a
+    // read-only transaction of its own so that cache hits never take a database connection
+    public DailyReportDTO get(LocalDate startDate, LocalDate endDate, Long userId, Supplier<DailyReportDTO> loader) {
+        if (!endDate.isBefore(LocalDate.now())) {
+            return readOnlyTransaction.execute(status -> loader.get());
+        }
+        
+        ReportKey key = new ReportKey(startDate, endDate, userId);
+        DailyReportDTO report = reports.getIfPresent(key);
+        if (report != null) {
+            hits.increment();
+            return report;
+        }
+        misses.increment();
+        
+        long observed = generation.get();
+        report = readOnlyTransaction.execute(status -> loader.get());
+        reports.put(key, report);
+        if (generation.get() != observed) {
+            reports.asMap().remove(key, report);
+        }
+        return report;
+    }
+    
+    // A sale of the given user (null: no user) on this date was added, changed or removed. Only closed days
+    // are cached, so the date is checked once the change commits: a sale made just before midnight may commit
+    // after it, when reports of its day can already be cached
+    public void invalidate(LocalDate date, Long userId) {
+        afterCommit(() -> {
+            if (date.isBefore(LocalDate.now())) {
+                invalidateMatching(key -> key.overlaps(date, date) && (key.userId == null || key.userId.equals(userId)));
+            }
+        });
+    }
+    
+    // Sales between the dates may have changed for any user, e.g. after a rollup rebuild
+    public void invalidateBetween(LocalDate startDate, LocalDate endDate) {
+        afterCommit(() -> invalidateMatching(key -> key.overlaps(startDate, endDate)));
+    }
+    
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", reports.estimatedSize());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+    
+    private void invalidateMatching(Predicate<ReportKey> matches) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        reports.asMap().keySet().removeIf(matches);
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private static final class ReportKey {
+        
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final Long userId;
+        
+        private ReportKey(LocalDate startDate, LocalDate endDate, Long userId) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.userId = userId;
+        }
+        
+        // Whether the report's range overlaps the given one
+        private boolean overlaps(LocalDate from, LocalDate to) {
+            return !startDate.isAfter(to) && !endDate.isBefore(from);
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ReportKey)) {
+                return false;
+            }
+            ReportKey key = (ReportKey) other;
+            return startDate.equals(key.startDate) && endDate.equals(key.endDate) && Objects.equals(userId, key.userId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(startDate, endDate, userId);
+        }
+    }
+}
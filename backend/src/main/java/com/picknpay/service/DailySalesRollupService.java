@@ -0,0 +1,149 @@
+package com.picknpay.service;
+
+import com.picknpay.entity.DailySalesRollup;
+import com.picknpay.entity.PaymentMethod;
+import com.picknpay.entity.Sale;
+import com.picknpay.entity.SaleItem;
+import com.picknpay.entity.SalePayment;
+import com.picknpay.repository.DailySalesRollupRepository;
+import com.picknpay.repository.ReportJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the daily_sales_rollup table in step with sale writes.
+ * Each sale adds (or, when removed, subtracts) its lines to the rollup row for its day, user,
+ * payment method, VAT rate and category, in the same transaction as the sale itself.
+ */
+@Service
+@Transactional
+public class DailySalesRollupService {
+    
+    // Stand-in for "no user" / "no category" in the rollup key columns
+    private static final Long NONE = 0L;
+    
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+    
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+    
+    @Autowired
+    private DailyReportCache dailyReportCache;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    public void recordSale(Sale sale) {
+        applySale(sale, 1);
+    }
+    
+    public void removeSale(Sale sale) {
+        applySale(sale, -1);
+    }
+    
+    // Back-fill or repair the rollup for a date range from the sales tables
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        reportJobRepository.markStaleBetween(startDate, endDate);
+        dailyReportCache.invalidateBetween(startDate, endDate);
+        return dailySalesRollupRepository.rebuild(startDate, endDate);
+    }
+    
+    private void applySale(Sale sale, int sign) {
+        LocalDate rollupDate = sale.getSaleDate().toLocalDate();
+        Long saleUserId = sale.getUser() != null ? sale.getUser().getId() : null;
+        // Stored and cached reports are only reused for past days. A change to a past day outdates them in
+        // this transaction; the day is checked again once it commits, since a sale made just before midnight
+        // may commit after it, and a report job may have read the day before the change committed
+        if (rollupDate.isBefore(LocalDate.now())) {
+            reportJobRepository.markStale(rollupDate, saleUserId);
+        }
+        markStaleAfterCommit(rollupDate, saleUserId);
+        dailyReportCache.invalidate(rollupDate, saleUserId);
+        
+        List<SaleItem> saleItems = sale.getSaleItems();
+        if (saleItems.isEmpty()) {
+            return;
+        }
+        
+        Long userId = sale.getUser() != null ? sale.getUser().getId() : NONE;
+        BigDecimal multiplier = BigDecimal.valueOf(sign);
+        
+        // Sale-level figures go on the first line's row, the same line the rebuild query picks
+        SaleItem firstLine = saleItems.stream()
+                .min(Comparator.comparing(SaleItem::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .get();
+        
+        Map<List<Object>, DailySalesRollup> deltas = new LinkedHashMap<>();
+        for (SaleItem saleItem : saleItems) {
+            // Keyed on the category stored on the line at sale time, so an edit or delete after the item
+            // is recategorised or deleted subtracts from the same row the sale was added to
+            Long categoryId = saleItem.getCategoryId() != null ? saleItem.getCategoryId() : NONE;
+            BigDecimal vatRate = saleItem.getVatRate().setScale(2, RoundingMode.HALF_UP);
+            
+            DailySalesRollup delta = deltas.computeIfAbsent(
+                    Arrays.asList(rollupDate, userId, sale.getPaymentMethod(), vatRate, categoryId),
+                    key -> new DailySalesRollup(rollupDate, userId, sale.getPaymentMethod(), vatRate, categoryId));
+            
+            delta.setQuantity(delta.getQuantity() + (long) sign * saleItem.getQuantity());
+            delta.setGrossAmount(delta.getGrossAmount().add(saleItem.getTotalPrice().multiply(multiplier)));
+            delta.setVatAmount(delta.getVatAmount().add(saleItem.getVatAmount().multiply(multiplier)));
+            delta.setNetAmount(delta.getNetAmount().add(saleItem.getPriceExcludingVat().multiply(multiplier)));
+            
+            if (saleItem == firstLine) {
+                delta.setSaleCount((long) sign);
+                if (sale.getPaymentMethod() == PaymentMethod.SPLIT) {
+                    for (SalePayment salePayment : sale.getSalePayments()) {
+                        BigDecimal amount = salePayment.getAmount().multiply(multiplier);
+                        if (salePayment.getPaymentMethod() == PaymentMethod.CASH) {
+                            delta.setSplitCashAmount(delta.getSplitCashAmount().add(amount));
+                        } else if (salePayment.getPaymentMethod() == PaymentMethod.CARD) {
+                            delta.setSplitCardAmount(delta.getSplitCardAmount().add(amount));
+                        }
+                    }
+                }
+            }
+        }
+        
+        dailySalesRollupRepository.applyDeltas(deltas.values());
+        if (sign < 0) {
+            dailySalesRollupRepository.deleteEmptyRows(deltas.values());
+        }
+    }
+    
+    // Outdate stored reports of the date once the transaction commits, if the day has closed by then
+    private void markStaleAfterCommit(LocalDate date, Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (date.isBefore(LocalDate.now())) {
+                    // The committed transaction's resources are still bound, so this needs one of its own
+                    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+                    transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    transaction.executeWithoutResult(status -> reportJobRepository.markStale(date, userId));
+                }
+            }
+        });
+    }
+}
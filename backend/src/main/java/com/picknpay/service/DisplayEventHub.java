@@ -0,0 +1,247 @@
+package com.picknpay.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Publish/subscribe hub that pushes till events to customer displays over SSE.
+ * Each event is serialised once per publish and fanned out to the topic's subscribers.
+ * Every subscriber has a small bounded buffer drained on a shared sender pool; when a slow
+ * display falls behind, its oldest events are dropped, so publishers never block.
+ * The last event of each topic is replayed to new subscribers so a display shows the current state at once;
+ * a till's cart topic is forgotten once it has had no subscribers and no publishes for an hour.
+ */
+@Service
+public class DisplayEventHub {
+
+    public static final String SETTINGS_TOPIC = "settings";
+    public static final String REPORTS_TOPIC = "reports";
+
+    private static final int SUBSCRIBER_BUFFER_SIZE = 32;
+    private static final long SUBSCRIPTION_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int SENDER_THREADS = 2;
+    private static final long IDLE_TOPIC_TTL_MS = 60 * 60 * 1000L;
+
+    // Till ids become topic names, so they are kept short and plain
+    private static final Pattern TILL_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String CART_TOPIC_PREFIX = "till/";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, Set<Subscriber>> subscribersByTopic = new ConcurrentHashMap<>();
+    private final Map<String, DisplayEvent> lastEventByTopic = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final ExecutorService sender = Executors.newFixedThreadPool(SENDER_THREADS, new DaemonThreadFactory());
+
+    public static String cartTopic(String tillId) {
+        if (tillId == null || !TILL_ID.matcher(tillId).matches()) {
+            throw new IllegalArgumentException("Till id must be 1 to 64 letters, digits, '-' or '_'");
+        }
+        return CART_TOPIC_PREFIX + tillId + "/cart";
+    }
+
+    // Open an SSE stream receiving every later event on the given topics, starting with each topic's last event
+    public SseEmitter subscribe(Collection<String> topics) {
+        SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, new LinkedHashSet<>(topics));
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        for (String topic : subscriber.topics) {
+            subscribersByTopic.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            DisplayEvent last = lastEventByTopic.get(topic);
+            if (last != null) {
+                subscriber.offer(last);
+            }
+        }
+        return emitter;
+    }
+
+    public void publish(String topic, String eventName, Object data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event data cannot be serialised: " + e.getMessage());
+        }
+        DisplayEvent event = new DisplayEvent(Long.toString(eventIds.incrementAndGet()), eventName, json);
+
+        lastEventByTopic.put(topic, event);
+        published.increment();
+        Set<Subscriber> subscribers = subscribersByTopic.get(topic);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        subscribersByTopic.values().forEach(subscribers::addAll);
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("topics", (long) subscribersByTopic.size());
+        stats.put("retainedEvents", (long) lastEventByTopic.size());
+        stats.put("subscribers", (long) subscribers.size());
+        stats.put("published", published.sum());
+        stats.put("dropped", dropped.sum());
+        return stats;
+    }
+
+    // Keep idle connections open through proxies and find displays that have gone away
+    @Scheduled(fixedRate = 15000)
+    public void sendHeartbeats() {
+        DisplayEvent heartbeat = DisplayEvent.HEARTBEAT;
+        Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        subscribersByTopic.values().forEach(subscribers::addAll);
+        subscribers.forEach(subscriber -> subscriber.offer(heartbeat));
+    }
+
+    // Forget the last event of cart topics nobody has subscribed to or published on for a while, so tills
+    // that are retired or renamed do not leave their carts behind
+    @Scheduled(fixedRate = 60000)
+    public void expireIdleTopics() {
+        long cutoff = System.currentTimeMillis() - IDLE_TOPIC_TTL_MS;
+        lastEventByTopic.forEach((topic, event) -> {
+            if (topic.startsWith(CART_TOPIC_PREFIX) && event.publishedAt < cutoff && !subscribersByTopic.containsKey(topic)) {
+                // Only if no newer event replaced it meanwhile
+                lastEventByTopic.remove(topic, event);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        for (String topic : subscriber.topics) {
+            subscribersByTopic.computeIfPresent(topic, (key, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<String> topics;
+        private final ArrayDeque<DisplayEvent> buffer = new ArrayDeque<>(SUBSCRIBER_BUFFER_SIZE);
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<String> topics) {
+            this.emitter = emitter;
+            this.topics = topics;
+        }
+
+        private void offer(DisplayEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() == SUBSCRIBER_BUFFER_SIZE) {
+                    buffer.poll();
+                    dropped.increment();
+                }
+                buffer.add(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                DisplayEvent event;
+                synchronized (this) {
+                    event = buffer.poll();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event.toSse());
+                } catch (IOException | IllegalStateException e) {
+                    // The display disconnected; stop buffering for it
+                    synchronized (this) {
+                        closed = true;
+                        buffer.clear();
+                        draining = false;
+                    }
+                    unsubscribe(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+
+    // An event serialised once at publish time; SSE builders are stateful, so one is built per send
+    private static final class DisplayEvent {
+
+        private static final DisplayEvent HEARTBEAT = new DisplayEvent(null, null, null);
+
+        private final String id;
+        private final String name;
+        private final String json;
+        private final long publishedAt;
+
+        private DisplayEvent(String id, String name, String json) {
+            this.id = id;
+            this.name = name;
+            this.json = json;
+            this.publishedAt = System.currentTimeMillis();
+        }
+
+        private SseEmitter.SseEventBuilder toSse() {
+            if (json == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(id).name(name).data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "display-events-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.picknpay.service;
+
+import com.picknpay.dto.ItemDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory barcode to ItemDTO index for till scans, warmed at startup by ItemService.
+ * Writes made inside a transaction are applied only after it commits, so a rolled-back
+ * change never shows up in scans. Stored DTOs are never mutated; lookups return copies.
+ */
+@Service
+public class ItemBarcodeIndex {
+    
+    private final Map<String, ItemDTO> itemsByBarcode = new ConcurrentHashMap<>();
+    private final Map<Long, String> barcodesByItemId = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    // Look a barcode up without touching the database; empty means the caller should fall back to it
+    public Optional<ItemDTO> lookup(String barcode) {
+        ItemDTO item = itemsByBarcode.get(barcode);
+        if (item == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(copy(item, item.getStockQuantity()));
+    }
+    
+    // Add or replace an item (after a create, update or database fallback)
+    public void put(ItemDTO item) {
+        ItemDTO snapshot = copy(item, item.getStockQuantity());
+        afterCommit(() -> store(snapshot));
+    }
+    
+    public void remove(Long itemId) {
+        afterCommit(() -> {
+            String barcode = barcodesByItemId.remove(itemId);
+            if (barcode != null) {
+                itemsByBarcode.remove(barcode);
+            }
+        });
+    }
+    
+    public void adjustStock(Long itemId, int quantityChange) {
+        afterCommit(() -> applyStockChange(itemId, quantityChange));
+    }
+    
+    // Apply the stock decrements of a completed or edited sale; negative quantities are returned to stock
+    public void decrementStock(Map<Long, Integer> quantitiesByItemId) {
+        Map<Long, Integer> decrements = new LinkedHashMap<>(quantitiesByItemId);
+        afterCommit(() -> decrements.forEach((itemId, quantity) -> applyStockChange(itemId, -quantity)));
+    }
+    
+    // Keep the category name on indexed items in step with a renamed category
+    public void renameCategory(Long categoryId, String categoryName) {
+        afterCommit(() -> itemsByBarcode.replaceAll((barcode, item) ->
+            categoryId.equals(item.getCategoryId()) ? withCategoryName(item, categoryName) : item));
+    }
+    
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) itemsByBarcode.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+    
+    private void store(ItemDTO item) {
+        if (item.getId() == null) {
+            return;
+        }
+        String previousBarcode = item.getBarcode() != null
+                ? barcodesByItemId.put(item.getId(), item.getBarcode())
+                : barcodesByItemId.remove(item.getId());
+        if (previousBarcode != null && !previousBarcode.equals(item.getBarcode())) {
+            itemsByBarcode.remove(previousBarcode);
+        }
+        if (item.getBarcode() != null) {
+            itemsByBarcode.put(item.getBarcode(), item);
+        }
+    }
+    
+    private void applyStockChange(Long itemId, int quantityChange) {
+        String barcode = barcodesByItemId.get(itemId);
+        if (barcode != null) {
+            itemsByBarcode.computeIfPresent(barcode,
+                (key, item) -> copy(item, item.getStockQuantity() + quantityChange));
+        }
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private static ItemDTO withCategoryName(ItemDTO item, String categoryName) {
+        ItemDTO updated = copy(item, item.getStockQuantity());
+        updated.setCategoryName(categoryName);
+        return updated;
+    }
+    
+    private static ItemDTO copy(ItemDTO item, Integer stockQuantity) {
+        ItemDTO copy = new ItemDTO();
+        copy.setId(item.getId());
+        copy.setName(item.getName());
+        copy.setDescription(item.getDescription());
+        copy.setPrice(item.getPrice());
+        copy.setStockQuantity(stockQuantity);
+        copy.setBarcode(item.getBarcode());
+        copy.setCategoryId(item.getCategoryId());
+        copy.setCategoryName(item.getCategoryName());
+        copy.setVatRate(item.getVatRate());
+        copy.setBatchId(item.getBatchId());
+        copy.setGeneralExpiryDate(item.getGeneralExpiryDate());
+        return copy;
+    }
+}
@@ -0,0 +1,324 @@
+package com.picknpay.service;
+
+import com.picknpay.dto.ItemImportResultDTO;
+import com.picknpay.entity.Category;
+import com.picknpay.entity.Item;
+import com.picknpay.repository.CategoryRepository;
+import com.picknpay.repository.ItemRepository;
+import com.picknpay.util.CsvReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk catalogue import from CSV. The file is parsed as a stream and written in chunks; each chunk is
+ * upserted by barcode in one JDBC batch and a transaction of its own, so a large file is never held in
+ * memory or in one long transaction. A chunk the database rejects is retried row by row so that only
+ * the offending rows fail. Every row that is not imported is reported with its line number.
+ */
+@Service
+public class ItemImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+    private static final BigDecimal MAX_VAT_RATE = new BigDecimal("100");
+
+    // Accepted header names, compared lower-case with spaces, dashes and underscores removed
+    private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+            Map.entry("name", "name"),
+            Map.entry("description", "description"),
+            Map.entry("price", "price"),
+            Map.entry("stock", "stockQuantity"),
+            Map.entry("stockquantity", "stockQuantity"),
+            Map.entry("quantity", "stockQuantity"),
+            Map.entry("barcode", "barcode"),
+            Map.entry("ean", "barcode"),
+            Map.entry("category", "category"),
+            Map.entry("categoryname", "category"),
+            Map.entry("vat", "vatRate"),
+            Map.entry("vatrate", "vatRate"),
+            Map.entry("batch", "batchId"),
+            Map.entry("batchid", "batchId"),
+            Map.entry("expirydate", "generalExpiryDate"),
+            Map.entry("generalexpirydate", "generalExpiryDate"));
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private VatCalculator vatCalculator;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Import items from CSV with a header row; name and price columns are required, unknown columns are ignored.
+    // Rows whose barcode is already in use update that item; categories are matched by name and created if missing
+    public ItemImportResultDTO importItems(Reader input) throws IOException {
+        ItemImportResultDTO result = new ItemImportResultDTO();
+        try (CsvReader csv = new CsvReader(input)) {
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            Map<String, Integer> columns = mapColumns(header);
+            Map<String, Category> categories = loadCategories();
+            Map<String, Long> linesByBarcode = new HashMap<>();
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            try {
+                List<String> record;
+                while ((record = csv.readRecord()) != null) {
+                    if (record.stream().allMatch(String::isBlank)) {
+                        continue;
+                    }
+                    result.setRowsRead(result.getRowsRead() + 1);
+                    long line = csv.getRecordLine();
+                    try {
+                        Item item = parseRow(record, columns, categories, result);
+                        if (item.getBarcode() != null) {
+                            Long firstLine = linesByBarcode.putIfAbsent(item.getBarcode(), line);
+                            if (firstLine != null) {
+                                throw new IllegalArgumentException("Barcode is already used on line " + firstLine);
+                            }
+                        }
+                        chunk.add(new ImportRow(line, item));
+                    } catch (IllegalArgumentException e) {
+                        addError(result, line, value(record, columns, "barcode"), e.getMessage());
+                    }
+
+                    if (chunk.size() == CHUNK_SIZE) {
+                        writeChunk(chunk, result);
+                        chunk.clear();
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Malformed CSV: keep what was read before it and report where reading stopped
+                addError(result, csv.getRecordLine(), null, e.getMessage());
+            }
+            writeChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void writeChunk(List<ImportRow> chunk, ItemImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Item> items = chunk.stream().map(row -> row.item).collect(Collectors.toList());
+        try {
+            int updated = transactionTemplate.execute(status -> upsert(items));
+            result.setInserted(result.getInserted() + items.size() - updated);
+            result.setUpdated(result.getUpdated() + updated);
+        } catch (RuntimeException e) {
+            for (ImportRow row : chunk) {
+                try {
+                    int updated = transactionTemplate.execute(status -> upsert(List.of(row.item)));
+                    result.setInserted(result.getInserted() + 1 - updated);
+                    result.setUpdated(result.getUpdated() + updated);
+                } catch (RuntimeException rowError) {
+                    addError(result, row.line, row.item.getBarcode(),
+                            NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+
+        List<String> barcodes = items.stream()
+                .map(Item::getBarcode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        itemService.indexItemsByBarcode(barcodes);
+    }
+
+    // Upsert the items and return how many of them replaced an existing item
+    private int upsert(List<Item> items) {
+        List<String> barcodes = items.stream()
+                .map(Item::getBarcode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        int existing = barcodes.isEmpty() ? 0 : itemRepository.findExistingBarcodes(barcodes).size();
+        itemRepository.upsertByBarcode(items);
+        return existing;
+    }
+
+    private Item parseRow(List<String> record, Map<String, Integer> columns, Map<String, Category> categories,
+                          ItemImportResultDTO result) {
+        Item item = new Item();
+
+        String name = value(record, columns, "name");
+        if (name == null) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        item.setName(checkLength(name, MAX_NAME_LENGTH, "Name"));
+        item.setDescription(checkLength(value(record, columns, "description"), MAX_DESCRIPTION_LENGTH, "Description"));
+        item.setBarcode(checkLength(value(record, columns, "barcode"), MAX_NAME_LENGTH, "Barcode"));
+        item.setBatchId(checkLength(value(record, columns, "batchId"), MAX_NAME_LENGTH, "Batch"));
+
+        BigDecimal price = parseDecimal(value(record, columns, "price"), "price");
+        if (price == null) {
+            throw new IllegalArgumentException("Price is required");
+        }
+        if (price.signum() <= 0 || price.compareTo(MAX_PRICE) > 0) {
+            throw new IllegalArgumentException("Price must be greater than 0 and at most " + MAX_PRICE);
+        }
+        item.setPrice(price);
+
+        // Left null when absent, which keeps the stock of an existing item
+        String stock = value(record, columns, "stockQuantity");
+        Integer stockQuantity = null;
+        if (stock != null) {
+            try {
+                stockQuantity = Integer.valueOf(stock);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid stock quantity: " + stock);
+            }
+            if (stockQuantity < 0) {
+                throw new IllegalArgumentException("Stock quantity cannot be negative");
+            }
+        }
+        item.setStockQuantity(stockQuantity);
+
+        String expiry = value(record, columns, "generalExpiryDate");
+        if (expiry != null) {
+            try {
+                item.setGeneralExpiryDate(LocalDate.parse(expiry));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid expiry date (expected YYYY-MM-DD): " + expiry);
+            }
+        }
+
+        String categoryName = value(record, columns, "category");
+        Category category = categoryName != null ? resolveCategory(categoryName, categories, result) : null;
+        item.setCategory(category);
+
+        // Same VAT defaulting as items created one by one: given rate, else the category's, else 0%
+        BigDecimal vatRate = parseDecimal(value(record, columns, "vatRate"), "VAT rate");
+        if (vatRate != null && (vatRate.signum() < 0 || vatRate.compareTo(MAX_VAT_RATE) > 0)) {
+            throw new IllegalArgumentException("VAT rate must be between 0 and 100");
+        }
+        if (vatRate == null) {
+            vatRate = category != null && category.getVatRate() != null ? category.getVatRate() : new BigDecimal("0.00");
+        }
+        item.setVatRate(vatRate);
+        vatCalculator.cacheUnitVat(item);
+        return item;
+    }
+
+    // Each category name is looked up once per import; missing categories are created on first use
+    private Category resolveCategory(String name, Map<String, Category> categories, ItemImportResultDTO result) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Category category = categories.get(key);
+        if (category != null) {
+            return category;
+        }
+        checkLength(name, MAX_NAME_LENGTH, "Category");
+        try {
+            category = transactionTemplate.execute(status -> categoryRepository.save(new Category(name, null)));
+            result.setCategoriesCreated(result.getCategoriesCreated() + 1);
+        } catch (DataIntegrityViolationException e) {
+            // Created by someone else since the import started
+            categories.putAll(loadCategories());
+            category = categories.get(key);
+            if (category == null) {
+                throw new IllegalArgumentException("Category could not be created: " + name);
+            }
+        }
+        categories.put(key, category);
+        return category;
+    }
+
+    private Map<String, Category> loadCategories() {
+        Map<String, Category> categories = new HashMap<>();
+        categoryRepository.findAll()
+                .forEach(category -> categories.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category));
+        return categories;
+    }
+
+    private static Map<String, Integer> mapColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String normalised = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[\\s_-]", "");
+            String column = COLUMN_ALIASES.get(normalised);
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        for (String required : List.of("name", "price")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    // Trimmed value of the column in the record, or null when the column is absent or the value empty
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal parseDecimal(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static String checkLength(String value, int maxLength, String field) {
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static void addError(ItemImportResultDTO result, long line, String barcode, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ItemImportResultDTO.RowError(line, barcode, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static final class ImportRow {
+
+        private final long line;
+        private final Item item;
+
+        private ImportRow(long line, Item item) {
+            this.line = line;
+            this.item = item;
+        }
+    }
+}
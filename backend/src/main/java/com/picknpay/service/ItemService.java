@@ -1,22 +1,34 @@
 package com.picknpay.service;
 
+import com.picknpay.dto.CatalogChangesDTO;
 import com.picknpay.dto.ItemDTO;
 import com.picknpay.dto.PaginatedResponse;
 import com.picknpay.entity.Item;
 import com.picknpay.entity.Category;
+import com.picknpay.entity.ItemTombstone;
 import com.picknpay.repository.ItemRepository;
+import com.picknpay.repository.ItemTombstoneRepository;
 import com.picknpay.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,12 +36,41 @@ import java.util.stream.Collectors;
 @Transactional
 public class ItemService {
     
+    // Result limits for item search
+    private static final int DEFAULT_SEARCH_RESULTS = 20;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int TRIGRAM_LENGTH = 3;
+    
+    // Delta sync: each call re-sends changes from slightly before the token, so writes whose transaction
+    // started before the previous sync but committed after it are not missed. Tills upsert by id
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+    // Tombstones are kept this long; older tokens get a full catalogue instead of a delta
+    private static final long SYNC_RETENTION_DAYS = 30;
+    
     @Autowired
     private ItemRepository itemRepository;
     
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Autowired
+    private ItemTombstoneRepository itemTombstoneRepository;
+    
+    @Autowired
+    private ItemBarcodeIndex barcodeIndex;
+    
+    @Autowired
+    private VatCalculator vatCalculator;
+    
+    // Load every item into the barcode index once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmBarcodeIndex() {
+        itemRepository.findAllWithCategory().stream()
+                .map(this::convertToDTO)
+                .forEach(barcodeIndex::put);
+    }
+    
     public List<ItemDTO> getAllItems() {
         return itemRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -65,9 +106,34 @@ public class ItemService {
                 .map(this::convertToDTO);
     }
     
+    // Served from the barcode index; no transaction is opened so a hit never takes a database connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<ItemDTO> getItemByBarcode(String barcode) {
-        return itemRepository.findByBarcode(barcode)
+        Optional<ItemDTO> indexed = barcodeIndex.lookup(barcode);
+        if (indexed.isPresent()) {
+            return indexed;
+        }
+        
+        // Not indexed (e.g. added directly in the database): load it and index it for next time
+        Optional<ItemDTO> item = itemRepository.findWithCategoryByBarcode(barcode)
                 .map(this::convertToDTO);
+        item.ifPresent(barcodeIndex::put);
+        return item;
+    }
+    
+    // Reload the items holding the barcodes into the barcode index, after bulk writes that bypass the entities
+    @Transactional(readOnly = true)
+    public void indexItemsByBarcode(Collection<String> barcodes) {
+        if (barcodes.isEmpty()) {
+            return;
+        }
+        itemRepository.findWithCategoryByBarcodeIn(barcodes).stream()
+                .map(this::convertToDTO)
+                .forEach(barcodeIndex::put);
+    }
+    
+    public Map<String, Long> getBarcodeIndexStats() {
+        return barcodeIndex.getStats();
     }
     
     public List<ItemDTO> getItemsByCategory(Long categoryId) {
@@ -76,12 +142,70 @@ public class ItemService {
                 .collect(Collectors.toList());
     }
     
-    public List<ItemDTO> searchItemsByName(String name) {
-        return itemRepository.findByNameContainingIgnoreCase(name).stream()
+    // Search-as-you-type over name, barcode and description, best matches first, at most limit results
+    public List<ItemDTO> searchItemsByName(String name, Integer limit) {
+        String term = name != null ? name.trim() : "";
+        if (term.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int size = limit != null ? Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)) : DEFAULT_SEARCH_RESULTS;
+        
+        String namePrefix = escapeLikePattern(term.toLowerCase()) + "%";
+        String barcodePrefix = escapeLikePattern(term) + "%";
+        
+        // Trigram indexes need at least three characters; shorter terms only match as prefixes
+        List<Item> items = term.length() < TRIGRAM_LENGTH
+                ? itemRepository.searchByPrefix(namePrefix, barcodePrefix, size)
+                : itemRepository.searchBySubstring(term, "%" + escapeLikePattern(term) + "%", namePrefix, barcodePrefix, size);
+        
+        return items.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    // Items created, updated or deleted since the sync token; a null token (or one older than the
+    // tombstone retention) returns the whole catalogue with fullSync set
+    @Transactional(readOnly = true)
+    public CatalogChangesDTO getCatalogChanges(String since) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime sinceTime = since != null && !since.isEmpty() ? decodeSyncToken(since) : null;
+        String syncToken = encodeSyncToken(now);
+        
+        if (sinceTime == null || sinceTime.isBefore(now.minusDays(SYNC_RETENTION_DAYS))) {
+            List<ItemDTO> items = itemRepository.findAllWithCategory().stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+            return new CatalogChangesDTO(items, new ArrayList<>(), syncToken, true);
+        }
+        
+        LocalDateTime from = sinceTime.minusSeconds(SYNC_OVERLAP_SECONDS);
+        List<ItemDTO> items = itemRepository.findChangedSinceWithCategory(from).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        List<Long> deletedItemIds = itemTombstoneRepository.findItemIdsDeletedAfter(from);
+        return new CatalogChangesDTO(items, deletedItemIds, syncToken, false);
+    }
+    
+    public int pruneTombstones() {
+        return itemTombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(SYNC_RETENTION_DAYS));
+    }
+    
+    private static String encodeSyncToken(LocalDateTime time) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(time.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static LocalDateTime decodeSyncToken(String token) {
+        try {
+            return LocalDateTime.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+    
+    private static String escapeLikePattern(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
     public List<ItemDTO> getAvailableItems() {
         return itemRepository.findAvailableItems().stream()
                 .map(this::convertToDTO)
@@ -97,7 +221,9 @@ public class ItemService {
     public ItemDTO createItem(ItemDTO itemDTO) {
         Item item = convertToEntity(itemDTO);
         Item savedItem = itemRepository.save(item);
-        return convertToDTO(savedItem);
+        ItemDTO savedItemDTO = convertToDTO(savedItem);
+        barcodeIndex.put(savedItemDTO);
+        return savedItemDTO;
     }
     
     public Optional<ItemDTO> updateItem(Long id, ItemDTO itemDTO) {
@@ -143,9 +269,12 @@ public class ItemService {
                     
                     existingItem.setBatchId(itemDTO.getBatchId());
                     existingItem.setGeneralExpiryDate(itemDTO.getGeneralExpiryDate());
+                    vatCalculator.cacheUnitVat(existingItem);
                     
                     Item updatedItem = itemRepository.save(existingItem);
-                    return convertToDTO(updatedItem);
+                    ItemDTO updatedItemDTO = convertToDTO(updatedItem);
+                    barcodeIndex.put(updatedItemDTO);
+                    return updatedItemDTO;
                 });
     }
     
@@ -155,6 +284,8 @@ public class ItemService {
                 // Item can be safely deleted - sale_items table has ON DELETE SET NULL
                 // This preserves sales history while allowing item deletion
                 itemRepository.deleteById(id);
+                itemTombstoneRepository.save(new ItemTombstone(id, LocalDateTime.now()));
+                barcodeIndex.remove(id);
                 return true;
             }
             return false;
@@ -165,17 +296,13 @@ public class ItemService {
     
     
     public boolean updateStock(Long itemId, Integer quantityChange) {
-        Optional<Item> itemOpt = itemRepository.findById(itemId);
-        if (itemOpt.isPresent()) {
-            Item item = itemOpt.get();
-            int newStock = item.getStockQuantity() + quantityChange;
-            if (newStock >= 0) {
-                item.setStockQuantity(newStock);
-                itemRepository.save(item);
-                return true;
-            }
+        // Read-modify-write in Java would let two concurrent adjustments overwrite each other,
+        // so the change and the non-negative check are applied atomically by the database
+        boolean updated = itemRepository.adjustStock(itemId, quantityChange, LocalDateTime.now()) == 1;
+        if (updated) {
+            barcodeIndex.adjustStock(itemId, quantityChange);
         }
-        return false;
+        return updated;
     }
     
     private ItemDTO convertToDTO(Item item) {
@@ -238,6 +365,7 @@ public class ItemService {
         
         item.setBatchId(dto.getBatchId());
         item.setGeneralExpiryDate(dto.getGeneralExpiryDate());
+        vatCalculator.cacheUnitVat(item);
         return item;
     }
 }
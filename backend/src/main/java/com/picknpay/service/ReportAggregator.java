@@ -0,0 +1,152 @@
+package com.picknpay.service;
+
+import com.picknpay.dto.CategorySummaryDTO;
+import com.picknpay.dto.DailyReportDTO;
+import com.picknpay.dto.VatSummaryDTO;
+import com.picknpay.entity.PaymentMethod;
+import com.picknpay.util.LongSlotMap;
+import com.picknpay.util.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a DailyReportDTO in a single pass over sales and sale lines.
+ * Each call may carry a single sale or line, or a group already aggregated by the database.
+ * Amounts are added as long cents in primitive arrays grouped by VAT basis points and category id,
+ * so adding allocates nothing; BigDecimals are only created by toReport. Memory is bounded by the
+ * number of distinct VAT rates and categories, not by the number of sales.
+ */
+public class ReportAggregator {
+
+    // Category id for lines without a category, and VAT rate for lines without one
+    public static final long NO_CATEGORY = 0L;
+    public static final int NO_VAT_RATE = -1;
+
+    private static final String QUICK_SALE_CATEGORY = "Quick Sale";
+    private static final int INITIAL_GROUPS = 16;
+
+    private long totalSales;
+    private long totalCents;
+    private long cashSales;
+    private long cashCents;
+    private long cardSales;
+    private long cardCents;
+    private long totalVatCents;
+    private long totalNetCents;
+    private long totalQuantity;
+
+    private final LongSlotMap vatSlots = new LongSlotMap(INITIAL_GROUPS);
+    private long[] vatGrossCents = new long[INITIAL_GROUPS];
+    private long[] vatVatCents = new long[INITIAL_GROUPS];
+    private long[] vatNetCents = new long[INITIAL_GROUPS];
+
+    private final LongSlotMap categorySlots = new LongSlotMap(INITIAL_GROUPS);
+    private long[] categoryCents = new long[INITIAL_GROUPS];
+    private long[] categoryQuantities = new long[INITIAL_GROUPS];
+    private String[] categoryNames = new String[INITIAL_GROUPS];
+
+    // Add sales paid with the given method; count is 1 for a single sale
+    public void addSales(PaymentMethod paymentMethod, long count, long amountCents) {
+        totalSales += count;
+        totalCents += amountCents;
+        if (paymentMethod == PaymentMethod.CASH) {
+            cashSales += count;
+            cashCents += amountCents;
+        } else if (paymentMethod == PaymentMethod.CARD) {
+            cardSales += count;
+            cardCents += amountCents;
+        }
+    }
+
+    // Fold the cash or card part of split payments into the cash/card totals
+    public void addSplitPayment(PaymentMethod paymentMethod, long amountCents) {
+        if (paymentMethod == PaymentMethod.CASH) {
+            cashCents += amountCents;
+        } else if (paymentMethod == PaymentMethod.CARD) {
+            cardCents += amountCents;
+        }
+    }
+
+    // Add sale lines sharing a VAT rate (in basis points, 2300 for 23%) and category; lines without a
+    // category (NO_CATEGORY) are quick sales
+    public void addLines(int vatBasisPoints, long categoryId, String categoryName, long quantity,
+                         long grossCents, long vatCents, long netCents) {
+        totalVatCents += vatCents;
+        totalNetCents += netCents;
+
+        // Group by VAT rate for breakdown: gross includes VAT, net excludes it
+        if (vatBasisPoints != NO_VAT_RATE) {
+            int slot = vatSlots.slotOf(vatBasisPoints);
+            if (slot == vatGrossCents.length) {
+                growVatGroups();
+            }
+            vatGrossCents[slot] += grossCents;
+            vatVatCents[slot] += vatCents;
+            vatNetCents[slot] += netCents;
+        }
+
+        int slot = categorySlots.slotOf(categoryId);
+        if (slot == categoryCents.length) {
+            growCategoryGroups();
+        }
+        if (categoryNames[slot] == null) {
+            categoryNames[slot] = categoryId != NO_CATEGORY && categoryName != null ? categoryName : QUICK_SALE_CATEGORY;
+        }
+        categoryCents[slot] += grossCents;
+        categoryQuantities[slot] += quantity;
+
+        totalQuantity += quantity;
+    }
+
+    public DailyReportDTO toReport(LocalDate reportDate) {
+        // VAT breakdown sorted by VAT rate ascending
+        List<VatSummaryDTO> vatBreakdown = new ArrayList<>(vatSlots.size());
+        for (int slot = 0; slot < vatSlots.size(); slot++) {
+            vatBreakdown.add(new VatSummaryDTO(Money.fromCents(vatSlots.keyAt(slot)), Money.fromCents(vatGrossCents[slot]),
+                Money.fromCents(vatVatCents[slot]), Money.fromCents(vatNetCents[slot])));
+        }
+        vatBreakdown.sort((a, b) -> a.getVatRate().compareTo(b.getVatRate()));
+
+        // Uncategorised lines and a category named "Quick Sale" are reported together, as one row per name
+        Map<String, CategorySummaryDTO> categoriesByName = new LinkedHashMap<>();
+        for (int slot = 0; slot < categorySlots.size(); slot++) {
+            long cents = categoryCents[slot];
+            long quantity = categoryQuantities[slot];
+            categoriesByName.merge(categoryNames[slot], new CategorySummaryDTO(categoryNames[slot], Money.fromCents(cents), quantity),
+                (existing, added) -> new CategorySummaryDTO(existing.getName(), existing.getTotal().add(added.getTotal()),
+                    existing.getCount() + added.getCount()));
+        }
+
+        // Categories sorted by total descending, followed by a total row counting items sold (not transactions)
+        List<CategorySummaryDTO> categories = new ArrayList<>(categoriesByName.values());
+        categories.sort((a, b) -> b.getTotal().compareTo(a.getTotal()));
+        categories.add(new CategorySummaryDTO("Total", Money.fromCents(totalCents), totalQuantity));
+
+        DailyReportDTO report = new DailyReportDTO(reportDate, totalSales, Money.fromCents(totalCents), cashSales,
+            Money.fromCents(cashCents), cardSales, Money.fromCents(cardCents));
+        report.setTotalVatAmount(Money.fromCents(totalVatCents));
+        report.setTotalAmountExcludingVat(Money.fromCents(totalNetCents));
+        report.setCategories(categories);
+        report.setVatBreakdown(vatBreakdown);
+        return report;
+    }
+
+    private void growVatGroups() {
+        int capacity = vatGrossCents.length * 2;
+        vatGrossCents = Arrays.copyOf(vatGrossCents, capacity);
+        vatVatCents = Arrays.copyOf(vatVatCents, capacity);
+        vatNetCents = Arrays.copyOf(vatNetCents, capacity);
+    }
+
+    private void growCategoryGroups() {
+        int capacity = categoryCents.length * 2;
+        categoryCents = Arrays.copyOf(categoryCents, capacity);
+        categoryQuantities = Arrays.copyOf(categoryQuantities, capacity);
+        categoryNames = Arrays.copyOf(categoryNames, capacity);
+    }
+}
@@ -0,0 +1,228 @@
+package com.picknpay.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.picknpay.dto.DailyReportDTO;
+import com.picknpay.dto.ReportJobDTO;
+import com.picknpay.entity.ReportJob;
+import com.picknpay.entity.ReportJobStatus;
+import com.picknpay.repository.ReportJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Daily reports over date ranges computed in the background. A job is persisted, queued on a small
+ * bounded pool, so at most a few report queries hold database connections next to checkout traffic,
+ * and its result is stored as JSON. Asking again for a finished report of a closed period returns the
+ * stored result at once; DailySalesRollupService marks results STALE when a sale in their range changes.
+ * Clients poll the job or listen for "report-job" events on the reports topic.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final List<ReportJobStatus> REUSABLE_STATUSES =
+            List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING, ReportJobStatus.COMPLETED);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private DisplayEventHub displayEventHub;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reports.jobs.threads:2}")
+    private int threads;
+
+    @Value("${reports.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${reports.jobs.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private volatile ThreadPoolExecutor executor;
+
+    // Start the pool and resume the jobs a shutdown left queued or running. Under the virtual-threads profile
+    // the workers are virtual threads; the pool stays bounded, since its size is what caps the report
+    // queries holding database connections
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ThreadFactory threadFactory = virtualThreads && Runtime.version().feature() >= 21
+                ? new VirtualThreadTaskExecutor("report-jobs-").getVirtualThreadFactory()
+                : new ReportThreadFactory();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        List<ReportJob> pending = transactionTemplate.execute(status -> {
+            reportJobRepository.requeueRunning();
+            return reportJobRepository.findByStatusInOrderByRequestedAtAsc(List.of(ReportJobStatus.QUEUED));
+        });
+        for (ReportJob job : pending) {
+            try {
+                enqueue(job);
+            } catch (IllegalStateException e) {
+                logger.warn("Report job {} could not be resumed: {}", job.getId(), e.getMessage());
+            }
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Resumed {} report jobs", pending.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs stay RUNNING and are queued again on the next start
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // Queue a report for the range, for one user or (userId null) all users. Unless refresh is set, a job
+    // already queued or running for the same report, or a finished one for a closed period, is returned instead
+    public ReportJobDTO submit(LocalDate startDate, LocalDate endDate, Long userId, boolean refresh) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (!refresh) {
+            ReportJob existing = findReusableJob(startDate, endDate, userId);
+            if (existing != null) {
+                return convertToDTO(existing, true);
+            }
+        }
+        ReportJob job = transactionTemplate.execute(status -> reportJobRepository.save(new ReportJob(startDate, endDate, userId)));
+        enqueue(job);
+        return convertToDTO(job, false);
+    }
+
+    // The job with its report once finished
+    public ReportJobDTO getJob(Long id) {
+        return convertToDTO(findJob(id), true);
+    }
+
+    public List<ReportJobDTO> getRecentJobs() {
+        return reportJobRepository.findTop50ByOrderByRequestedAtDesc().stream()
+                .map(job -> convertToDTO(job, false))
+                .collect(Collectors.toList());
+    }
+
+    public int pruneJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        return transactionTemplate.execute(status -> reportJobRepository.deleteOlderThan(cutoff));
+    }
+
+    private ReportJob findReusableJob(LocalDate startDate, LocalDate endDate, Long userId) {
+        List<ReportJob> jobs = reportJobRepository.findTop10ByStartDateAndEndDateAndUserIdAndStatusInOrderByRequestedAtDesc(
+                startDate, endDate, userId, REUSABLE_STATUSES);
+        for (ReportJob job : jobs) {
+            if (job.getStatus() != ReportJobStatus.COMPLETED) {
+                return job;
+            }
+            // A range still open when the job started may have had sales it did not see
+            if (job.getStartedAt() != null && job.getEndDate().isBefore(job.getStartedAt().toLocalDate())) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    private void enqueue(ReportJob job) {
+        ThreadPoolExecutor pool = executor;
+        try {
+            if (pool == null) {
+                throw new RejectedExecutionException("Report jobs are not running");
+            }
+            pool.execute(() -> run(job.getId(), job.getStartDate(), job.getEndDate(), job.getUserId()));
+        } catch (RejectedExecutionException e) {
+            transactionTemplate.executeWithoutResult(status ->
+                    reportJobRepository.fail(job.getId(), "Too many report jobs queued", LocalDateTime.now()));
+            throw new IllegalStateException("Too many report jobs are queued, try again later");
+        }
+    }
+
+    private void run(Long id, LocalDate startDate, LocalDate endDate, Long userId) {
+        Integer started = transactionTemplate.execute(status -> reportJobRepository.markRunning(id, LocalDateTime.now()));
+        if (started == null || started == 0) {
+            return;
+        }
+        try {
+            DailyReportDTO report = userId == null
+                    ? saleService.getDailyReportByDateRangeForAdmin(startDate, endDate)
+                    : saleService.getDailyReportByUserAndDateRange(startDate, endDate, userId);
+            String result = objectMapper.writeValueAsString(report);
+            transactionTemplate.executeWithoutResult(status -> reportJobRepository.complete(id, result, LocalDateTime.now()));
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down; the job is resumed on the next start
+                return;
+            }
+            logger.error("Report job {} failed", id, e);
+            String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            String error = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+            transactionTemplate.executeWithoutResult(status -> reportJobRepository.fail(id, error, LocalDateTime.now()));
+        }
+        reportJobRepository.findById(id).ifPresent(job ->
+                displayEventHub.publish(DisplayEventHub.REPORTS_TOPIC, "report-job", convertToDTO(job, false)));
+    }
+
+    private ReportJob findJob(Long id) {
+        return reportJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Report job not found with ID: " + id));
+    }
+
+    private ReportJobDTO convertToDTO(ReportJob job, boolean includeResult) {
+        return new ReportJobDTO(
+                job.getId(),
+                job.getStatus().name(),
+                job.getStartDate(),
+                job.getEndDate(),
+                job.getUserId(),
+                job.getRequestedAt(),
+                job.getStartedAt(),
+                job.getCompletedAt(),
+                job.getError(),
+                includeResult ? job.getResult() : null);
+    }
+
+    private static final class ReportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "report-jobs-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
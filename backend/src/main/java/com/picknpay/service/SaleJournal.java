@@ -0,0 +1,642 @@
+package com.picknpay.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.picknpay.dto.SaleBatchResultDTO;
+import com.picknpay.dto.SaleDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.exception.JDBCConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal in front of sale creation. A submitted sale is appended to a local segment file
+ * and fsync'd before it is acknowledged, so it survives the database being slow or down and the
+ * backend being killed. A single replayer applies journaled sales to PostgreSQL in order, retrying
+ * while the database is unavailable; replay is idempotent on clientSaleId, so re-applying entries
+ * after a crash only finds the sales already recorded. Off unless sales.journal.enabled is set.
+ *
+ * Records are [int length][int CRC32][sale JSON]. Appends are group-committed: the writer drains every
+ * waiting append, writes them and forces the file once. The checkpoint file holds the replay position;
+ * segments behind it are deleted. A torn record at the end of the last segment is truncated on startup.
+ */
+@Service
+public class SaleJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleJournal.class);
+
+    private static final String SEGMENT_PREFIX = "sales-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String REJECTED_FILE = "rejected.ndjson";
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 4 * 1024 * 1024;
+    private static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final int MAX_GROUP_COMMIT = 256;
+    private static final int CHECKPOINT_INTERVAL = 100;
+    private static final long MIN_RETRY_DELAY_MS = 500;
+    private static final long MAX_RETRY_DELAY_MS = 30000;
+    private static final int MAX_LISTED_REJECTIONS = 1000;
+
+    @Value("${sales.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${sales.journal.dir:data/sale-journal}")
+    private String directory;
+
+    @Value("${sales.journal.ack-wait-ms:3000}")
+    private long ackWaitMs;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final BlockingQueue<PendingAppend> appendQueue = new LinkedBlockingQueue<>();
+    private final Map<UUID, CompletableFuture<SaleBatchResultDTO>> awaitingReplay = new ConcurrentHashMap<>();
+    private final Object durableSignal = new Object();
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    private Path journalDir;
+    private Thread writer;
+    private Thread replayer;
+    private volatile boolean running;
+
+    // Set by the replayer while it is retrying because the database cannot be reached
+    private volatile boolean databaseUnavailable;
+
+    // Owned by the writer thread once started
+    private FileChannel writeChannel;
+    private long writeSegment;
+
+    // End of the fsync'd part of the journal, published by the writer after every force
+    private volatile long durableSegment;
+    private volatile long durableOffset;
+
+    // Replay position, owned by the replayer thread once started
+    private volatile long replaySegment;
+    private volatile long replayOffset;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        FunctionCounter.builder("picknpay.sales.journal.rejected", rejected, LongAdder::sum)
+                .description("Journaled sales the database refused; listed at /api/sales/journal/rejected")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        try {
+            recover();
+        } catch (IOException e) {
+            logger.error("Sale journal unavailable, sales will be written directly to the database", e);
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "sale-journal-writer");
+        replayer = new Thread(this::replayLoop, "sale-journal-replayer");
+        writer.setDaemon(true);
+        replayer.setDaemon(true);
+        writer.start();
+        replayer.start();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Durably journal the sale, then wait up to the ack timeout for the replayer to write it and return that
+    // outcome, so stock is normally checked before the till is answered. A sale with no outcome by then (the
+    // database is slow or down, or the replayer is busy with earlier sales) is answered ACCEPTED, as
+    // journaled, and written once the replayer reaches it. Retries of a sale share one wait, keyed by its
+    // clientSaleId. The sale is dated by the server, as on the direct path.
+    // Throws IOException when the sale could not be journaled; it has then not been accepted
+    public SaleBatchResultDTO submit(SaleDTO saleDTO) throws IOException {
+        if (!running) {
+            throw new IOException("Sale journal is not running");
+        }
+        if (saleDTO.getClientSaleId() == null) {
+            saleDTO.setClientSaleId(UUID.randomUUID());
+        }
+        saleDTO.setSaleDate(LocalDateTime.now());
+        UUID clientSaleId = saleDTO.getClientSaleId();
+        byte[] payload = objectMapper.writeValueAsBytes(saleDTO);
+        if (payload.length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Sale is too large to journal");
+        }
+
+        // The replayer removes the future when it completes it; a waiter that times out leaves it for the
+        // replayer, which is bound to reach the journaled record. One whose sale was not journaled drops it,
+        // so a retry sharing it at worst times out into ACCEPTED
+        CompletableFuture<SaleBatchResultDTO> replayed =
+                awaitingReplay.computeIfAbsent(clientSaleId, key -> new CompletableFuture<>());
+        PendingAppend append = new PendingAppend(encode(payload));
+        appendQueue.add(append);
+        try {
+            append.durable.get();
+        } catch (ExecutionException e) {
+            awaitingReplay.remove(clientSaleId, replayed);
+            throw new IOException("Error journaling sale: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            awaitingReplay.remove(clientSaleId, replayed);
+            throw new IOException("Interrupted while journaling sale");
+        }
+        appended.increment();
+
+        try {
+            return replayed.get(ackWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.ACCEPTED, saleDTO, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.ACCEPTED, saleDTO, null);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sale replay failed", e.getCause());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running);
+        stats.put("databaseUnavailable", databaseUnavailable);
+        stats.put("appended", appended.sum());
+        stats.put("applied", applied.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("retries", retries.sum());
+        stats.put("pendingBytes", pendingBytes());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        synchronized (durableSignal) {
+            durableSignal.notifyAll();
+        }
+        replayer.interrupt();
+        writer.join(5000);
+        replayer.join(5000);
+        closeQuietly(writeChannel);
+    }
+
+    // Find the replay position and the valid end of the journal, dropping a torn record left by a crash
+    private void recover() throws IOException {
+        journalDir = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(journalDir);
+
+        List<Long> segments = listSegments();
+        long[] checkpoint = readCheckpoint();
+        if (checkpoint != null) {
+            replaySegment = checkpoint[0];
+            replayOffset = checkpoint[1];
+        } else {
+            replaySegment = segments.isEmpty() ? 1 : segments.get(0);
+            replayOffset = 0;
+        }
+        for (long segment : segments) {
+            if (segment < replaySegment) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+
+        writeSegment = Math.max(replaySegment, segments.isEmpty() ? 1 : segments.get(segments.size() - 1));
+        writeChannel = FileChannel.open(segmentPath(writeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validEnd = scanValidEnd(writeChannel);
+        if (validEnd < writeChannel.size()) {
+            logger.warn("Truncating torn sale journal record in segment {} at offset {}", writeSegment, validEnd);
+            writeChannel.truncate(validEnd);
+            writeChannel.force(true);
+        }
+        writeChannel.position(validEnd);
+        if (replaySegment == writeSegment && replayOffset > validEnd) {
+            replayOffset = validEnd;
+        }
+        durableSegment = writeSegment;
+        durableOffset = validEnd;
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(MAX_GROUP_COMMIT);
+        while (running || !appendQueue.isEmpty()) {
+            PendingAppend first;
+            try {
+                first = appendQueue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            appendQueue.drainTo(batch, MAX_GROUP_COMMIT - 1);
+            try {
+                for (PendingAppend append : batch) {
+                    if (writeChannel.position() >= SEGMENT_SIZE) {
+                        rollSegment();
+                    }
+                    ByteBuffer record = ByteBuffer.wrap(append.record);
+                    while (record.hasRemaining()) {
+                        writeChannel.write(record);
+                    }
+                }
+                writeChannel.force(false);
+                durableOffset = writeChannel.position();
+                durableSegment = writeSegment;
+                synchronized (durableSignal) {
+                    durableSignal.notifyAll();
+                }
+                batch.forEach(append -> append.durable.complete(null));
+            } catch (IOException e) {
+                logger.error("Error writing sale journal", e);
+                batch.forEach(append -> append.durable.completeExceptionally(e));
+                discardUnforcedTail();
+            }
+            batch.clear();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        writeChannel.force(false);
+        long nextSegment = writeSegment + 1;
+        FileChannel next = FileChannel.open(segmentPath(nextSegment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // The old segment is complete and forced; the replayer may move past it once durableSegment advances
+        closeQuietly(writeChannel);
+        writeChannel = next;
+        writeSegment = nextSegment;
+    }
+
+    // After a failed write, drop whatever of the batch reached the file so acknowledged and unacknowledged records never mix
+    private void discardUnforcedTail() {
+        try {
+            if (writeSegment == durableSegment) {
+                writeChannel.truncate(durableOffset);
+                writeChannel.position(durableOffset);
+            } else {
+                writeChannel.truncate(0);
+                writeChannel.position(0);
+            }
+        } catch (IOException e) {
+            logger.error("Error discarding unwritten sale journal records", e);
+        }
+    }
+
+    private void replayLoop() {
+        int sinceCheckpoint = 0;
+        FileChannel readChannel = null;
+        try {
+            readChannel = FileChannel.open(segmentPath(replaySegment), StandardOpenOption.READ);
+            while (running) {
+                long segmentEnd = replaySegment == durableSegment ? durableOffset : readChannel.size();
+                if (replayOffset >= segmentEnd) {
+                    if (replaySegment < durableSegment) {
+                        // Checkpoint into the next segment before deleting the one just finished
+                        closeQuietly(readChannel);
+                        long finished = replaySegment;
+                        replaySegment++;
+                        replayOffset = 0;
+                        writeCheckpoint();
+                        sinceCheckpoint = 0;
+                        Files.deleteIfExists(segmentPath(finished));
+                        readChannel = FileChannel.open(segmentPath(replaySegment), StandardOpenOption.READ);
+                        continue;
+                    }
+                    if (sinceCheckpoint > 0) {
+                        writeCheckpoint();
+                        sinceCheckpoint = 0;
+                    }
+                    synchronized (durableSignal) {
+                        if (running && replaySegment == durableSegment && replayOffset >= durableOffset) {
+                            durableSignal.wait(1000);
+                        }
+                    }
+                    continue;
+                }
+
+                byte[] payload = readRecord(readChannel, replayOffset);
+                if (payload == null) {
+                    // Only possible if a completed segment was damaged on disk; skip the rest of it
+                    logger.error("Corrupt sale journal record in segment {} at offset {}, skipping to the next segment",
+                            replaySegment, replayOffset);
+                    replayOffset = segmentEnd;
+                    continue;
+                }
+                if (!apply(payload)) {
+                    break;
+                }
+                replayOffset += HEADER_SIZE + payload.length;
+                if (++sinceCheckpoint >= CHECKPOINT_INTERVAL) {
+                    writeCheckpoint();
+                    sinceCheckpoint = 0;
+                }
+            }
+            if (sinceCheckpoint > 0) {
+                writeCheckpoint();
+            }
+        } catch (InterruptedException e) {
+            writeCheckpointQuietly();
+        } catch (IOException e) {
+            logger.error("Sale journal replay stopped, journaled sales will be replayed on restart", e);
+        } finally {
+            closeQuietly(readChannel);
+        }
+    }
+
+    // Apply one journaled sale, retrying while the database is unavailable. Returns false only on shutdown
+    private boolean apply(byte[] payload) throws InterruptedException {
+        SaleDTO saleDTO;
+        try {
+            saleDTO = objectMapper.readValue(payload, SaleDTO.class);
+        } catch (IOException e) {
+            logger.error("Unreadable sale journal record skipped", e);
+            reject(new String(payload, StandardCharsets.UTF_8), null, e);
+            return true;
+        }
+
+        long delay = MIN_RETRY_DELAY_MS;
+        while (running) {
+            SaleBatchResultDTO result;
+            try {
+                result = applyOnce(saleDTO);
+            } catch (RuntimeException e) {
+                if (isDatabaseUnavailable(e)) {
+                    databaseUnavailable = true;
+                    retries.increment();
+                    logger.warn("Database unavailable, retrying journaled sale {} in {} ms: {}",
+                            saleDTO.getClientSaleId(), delay, e.getMessage());
+                    Thread.sleep(delay);
+                    delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+                    continue;
+                }
+                reject(new String(payload, StandardCharsets.UTF_8), saleDTO.getClientSaleId(), e);
+                result = new SaleBatchResultDTO(saleDTO.getClientSaleId(), SaleBatchResultDTO.FAILED, null, e.getMessage());
+            }
+            databaseUnavailable = false;
+            if (!SaleBatchResultDTO.FAILED.equals(result.getStatus())) {
+                applied.increment();
+            }
+            CompletableFuture<SaleBatchResultDTO> waiting = awaitingReplay.remove(saleDTO.getClientSaleId());
+            if (waiting != null) {
+                waiting.complete(result);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private SaleBatchResultDTO applyOnce(SaleDTO saleDTO) {
+        try {
+            return saleService.recordAcceptedSale(saleDTO);
+        } catch (DataIntegrityViolationException e) {
+            // Recorded concurrently through the direct or batch endpoint
+            Optional<SaleDTO> existing = saleService.getSaleByClientSaleId(saleDTO.getClientSaleId());
+            if (existing.isEmpty()) {
+                throw e;
+            }
+            return new SaleBatchResultDTO(saleDTO.getClientSaleId(), SaleBatchResultDTO.DUPLICATE, existing.get(), null);
+        }
+    }
+
+    private static boolean isDatabaseUnavailable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CannotCreateTransactionException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof JDBCConnectionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Sales the database refused while replaying, newest last (at most the latest 1000)
+    public List<Map<String, Object>> getRejectedSales() throws IOException {
+        Path path = journalDir != null ? journalDir.resolve(REJECTED_FILE) : Paths.get(directory).resolve(REJECTED_FILE);
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+        Deque<String> lines = new ArrayDeque<>();
+        try (Stream<String> file = Files.lines(path, StandardCharsets.UTF_8)) {
+            file.filter(line -> !line.isBlank()).forEach(line -> {
+                if (lines.size() == MAX_LISTED_REJECTIONS) {
+                    lines.removeFirst();
+                }
+                lines.addLast(line);
+            });
+        }
+        List<Map<String, Object>> rejections = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            rejections.add(objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {}));
+        }
+        return rejections;
+    }
+
+    // Keep sales the database refused (e.g. insufficient stock) so they can be followed up by hand: they are
+    // logged at ERROR, counted in picknpay.sales.journal.rejected and listed at /api/sales/journal/rejected
+    private void reject(String saleJson, UUID clientSaleId, Exception error) {
+        rejected.increment();
+        logger.error("Journaled sale {} rejected and kept in {}: {}", clientSaleId, REJECTED_FILE, error.getMessage());
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("rejectedAt", LocalDateTime.now().toString());
+        entry.put("clientSaleId", clientSaleId);
+        entry.put("error", error.getMessage());
+        entry.put("sale", saleJson);
+        try {
+            byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.write(journalDir.resolve(REJECTED_FILE), line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Error recording rejected sale {}", clientSaleId, e);
+        }
+    }
+
+    private static byte[] encode(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .array();
+    }
+
+    // Payload of the record at the offset, or null when it is incomplete or fails its checksum
+    private static byte[] readRecord(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (!readFully(channel, header, offset)) {
+            return null;
+        }
+        header.flip();
+        int length = header.getInt();
+        int checksum = header.getInt();
+        if (length <= 0 || length > MAX_RECORD_SIZE) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (!readFully(channel, payload, offset + HEADER_SIZE)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        return (int) crc.getValue() == checksum ? payload.array() : null;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long scanValidEnd(FileChannel channel) throws IOException {
+        long offset = 0;
+        byte[] payload;
+        while ((payload = readRecord(channel, offset)) != null) {
+            offset += HEADER_SIZE + payload.length;
+        }
+        return offset;
+    }
+
+    private long[] readCheckpoint() throws IOException {
+        Path path = journalDir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        String[] parts = Files.readString(path, StandardCharsets.UTF_8).trim().split(":");
+        try {
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            // Replaying from the start is safe: already recorded sales are found by clientSaleId
+            logger.warn("Unreadable sale journal checkpoint, replaying all segments");
+            return null;
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a crash leaves either the old or the new checkpoint
+    private void writeCheckpoint() throws IOException {
+        Path temp = journalDir.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap((replaySegment + ":" + replayOffset).getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(temp, journalDir.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeCheckpointQuietly() {
+        try {
+            writeCheckpoint();
+        } catch (IOException e) {
+            logger.warn("Error writing sale journal checkpoint", e);
+        }
+    }
+
+    private long pendingBytes() {
+        if (!running) {
+            return 0;
+        }
+        long segment = replaySegment;
+        long offset = replayOffset;
+        if (segment == durableSegment) {
+            return Math.max(0, durableOffset - offset);
+        }
+        return (durableSegment - segment) * SEGMENT_SIZE + durableOffset - offset;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return journalDir.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing sale journal segment", e);
+        }
+    }
+
+    private static final class PendingAppend {
+
+        private final byte[] record;
+        private final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        private PendingAppend(byte[] record) {
+            this.record = record;
+        }
+    }
+}
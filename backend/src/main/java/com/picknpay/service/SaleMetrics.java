@@ -0,0 +1,67 @@
+package com.picknpay.service;
+
+import com.picknpay.entity.Sale;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business meters for the tills: completed sales (rate gives sales per second),
+ * basket size and value, and the barcode index and report cache hit/miss counters.
+ */
+@Component
+public class SaleMetrics {
+    
+    private final Counter salesCreated;
+    private final DistributionSummary basketLines;
+    private final DistributionSummary basketAmount;
+    
+    public SaleMetrics(MeterRegistry meterRegistry, ItemBarcodeIndex barcodeIndex, DailyReportCache reportCache) {
+        this.salesCreated = Counter.builder("picknpay.sales.created")
+                .description("Sales completed at the tills")
+                .register(meterRegistry);
+        this.basketLines = DistributionSummary.builder("picknpay.sales.basket.lines")
+                .description("Lines per completed sale")
+                .baseUnit("lines")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.basketAmount = DistributionSummary.builder("picknpay.sales.basket.amount")
+                .description("Total amount per completed sale")
+                .baseUnit("euros")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        
+        FunctionCounter.builder("picknpay.barcode.index.lookups", barcodeIndex, index -> index.getStats().get("hits"))
+                .description("Barcode scans answered from the in-memory index")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("picknpay.barcode.index.lookups", barcodeIndex, index -> index.getStats().get("misses"))
+                .description("Barcode scans that fell back to the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        
+        FunctionCounter.builder("picknpay.reports.cache.lookups", reportCache, cache -> cache.getStats().get("hits"))
+                .description("Closed-period daily reports served from the report cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("picknpay.reports.cache.lookups", reportCache, cache -> cache.getStats().get("misses"))
+                .description("Closed-period daily reports computed from the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("picknpay.reports.cache.invalidations", reportCache, cache -> cache.getStats().get("invalidations"))
+                .description("Sale changes on past days that dropped cached reports")
+                .register(meterRegistry);
+        Gauge.builder("picknpay.reports.cache.size", reportCache, cache -> cache.getStats().get("size"))
+                .description("Daily reports held in the report cache")
+                .register(meterRegistry);
+    }
+    
+    public void recordSale(Sale sale) {
+        salesCreated.increment();
+        basketLines.record(sale.getSaleItems().size());
+        basketAmount.record(sale.getTotalAmount().doubleValue());
+    }
+}
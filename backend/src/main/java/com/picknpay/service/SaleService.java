@@ -1,39 +1,82 @@
 package com.picknpay.service;
 
+import com.picknpay.dto.CursorPaginatedResponse;
+import com.picknpay.dto.SaleBatchResultDTO;
 import com.picknpay.dto.SaleDTO;
 import com.picknpay.dto.SaleItemDTO;
 import com.picknpay.dto.SalePaymentDTO;
 import com.picknpay.dto.DailyReportDTO;
-import com.picknpay.dto.CategorySummaryDTO;
-import com.picknpay.dto.VatSummaryDTO;
 import com.picknpay.entity.Item;
 import com.picknpay.entity.Sale;
 import com.picknpay.entity.SaleItem;
 import com.picknpay.entity.SalePayment;
 import com.picknpay.entity.PaymentMethod;
 import com.picknpay.entity.User;
+import com.picknpay.repository.DailySalesRollupRepository;
 import com.picknpay.repository.ItemRepository;
 import com.picknpay.repository.SaleRepository;
 import com.picknpay.repository.SaleItemRepository;
 import com.picknpay.repository.UserRepository;
+import com.picknpay.util.CsvWriter;
+import com.picknpay.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 
 @Service
 @Transactional
 public class SaleService {
     
+    // Page sizes for keyset-paginated listings
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    // Date bounds for listings that are not restricted to a range; the first page starts after LATEST_SALE_DATE
+    private static final LocalDateTime EARLIEST_SALE_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_SALE_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
+    // Sales converted together while streaming, so their lines and payments are batch-loaded and then released
+    private static final int STREAM_CHUNK_SIZE = 50;
+    
+    // Sales written between persistence context flushes during a batch upload
+    private static final int UPLOAD_CHUNK_SIZE = 50;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Autowired
     private SaleRepository saleRepository;
     
@@ -46,6 +89,34 @@ public class SaleService {
     @Autowired
     private SaleItemRepository saleItemRepository;
     
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+    
+    @Autowired
+    private DailySalesRollupService dailySalesRollupService;
+    
+    @Autowired
+    private ItemBarcodeIndex barcodeIndex;
+    
+    @Autowired
+    private SaleMetrics saleMetrics;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private DailyReportCache dailyReportCache;
+    
+    @Autowired
+    private VatCalculator vatCalculator;
+    
+    @Autowired
+    private Validator validator;
+    
+    // Serve daily reports from the rollup table; turn off to aggregate the raw sales tables instead
+    @Value("${reports.use-rollup:true}")
+    private boolean useRollup;
+    
     public List<SaleDTO> getAllSales() {
         return saleRepository.findAllByOrderBySaleDateDesc().stream()
                 .map(this::convertToDTO)
@@ -93,10 +164,233 @@ public class SaleService {
         }
     }
     
+    // Keyset pagination on (sale_date, id), newest first. userId, startDate and endDate are optional filters;
+    // cursor is the nextCursor of the previous page, or null for the first page
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<SaleDTO> getSalesPage(Long userId, LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer limit) {
+        int size = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+        LocalDateTime from = startDate != null ? startDate : EARLIEST_SALE_DATE;
+        LocalDateTime to = endDate != null ? endDate : LATEST_SALE_DATE;
+        
+        LocalDateTime cursorDate = LATEST_SALE_DATE;
+        Long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+                cursorDate = LocalDateTime.parse(position[0]);
+                cursorId = Long.valueOf(position[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        
+        // Fetch one extra row to tell whether another page follows
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+        List<Sale> sales = userId != null
+                ? saleRepository.findSalesPageByUserIdAndDateRange(userId, from, to, cursorDate, cursorId, pageRequest)
+                : saleRepository.findSalesPageByDateRange(from, to, cursorDate, cursorId, pageRequest);
+        
+        boolean last = sales.size() <= size;
+        if (!last) {
+            sales = sales.subList(0, size);
+        }
+        List<SaleDTO> content = sales.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        String nextCursor = last ? null : encodeCursor(sales.get(sales.size() - 1));
+        
+        return new CursorPaginatedResponse<>(content, size, nextCursor, last);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<SaleDTO> getTodaySalesPage(Long userId, boolean isAdmin, String cursor, Integer limit) {
+        LocalDate today = LocalDate.now();
+        return getSalesPage(isAdmin ? null : userId, today.atStartOfDay(), today.atTime(LocalTime.MAX), cursor, limit);
+    }
+    
+    // Hand every sale in the range to the consumer, oldest first, without holding the whole result in memory.
+    // userId is optional; the consumer runs inside this method's transaction
+    @Transactional(readOnly = true)
+    public void streamSales(Long userId, LocalDateTime startDate, LocalDateTime endDate, Consumer<SaleDTO> consumer) {
+        try (Stream<Sale> sales = userId != null
+                ? saleRepository.streamSalesByUserIdAndDateRange(userId, startDate, endDate)
+                : saleRepository.streamSalesByDateRange(startDate, endDate)) {
+            List<Sale> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            Iterator<Sale> iterator = sales.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    chunk.forEach(sale -> consumer.accept(convertToDTO(sale)));
+                    chunk.clear();
+                    // Detach the converted sales so the persistence context stays small
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+    
+    // Write the sale lines in the date range (end inclusive) as CSV, one row per line, reading them through a
+    // database cursor; nothing but the current row is held in memory. userId is optional
+    @Transactional(readOnly = true)
+    public void exportSaleLinesCsv(LocalDate startDate, LocalDate endDate, Long userId, Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow(SaleRepository.SALE_LINE_EXPORT_COLUMNS.toArray());
+        // Send the header at once so the download starts before the first rows are read
+        csv.flush();
+        try {
+            saleRepository.exportSaleLines(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), userId, row -> {
+                try {
+                    csv.writeRow(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csv.flush();
+    }
+    
+    private String encodeCursor(Sale sale) {
+        String position = sale.getSaleDate() + "," + sale.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Sale previously recorded under the till's id, if any; retried submissions return it instead of creating another
+    @Transactional(readOnly = true)
+    public Optional<SaleDTO> getSaleByClientSaleId(UUID clientSaleId) {
+        return saleRepository.findByClientSaleId(clientSaleId)
+                .map(this::convertToDTO);
+    }
+    
     public SaleDTO createSale(SaleDTO saleDTO) {
+        return createSale(saleDTO, LocalDateTime.now());
+    }
+    
+    // Sales queued by an offline till, in the order they were rung up. Each sale is validated like a single
+    // sale and reported as FAILED if it is invalid. The valid ones are written in one transaction; if any of
+    // them fails, that transaction is rolled back and each sale is retried in a transaction of its own, so
+    // one bad sale does not hold back the rest. Results are in request order
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SaleBatchResultDTO> createSales(List<SaleDTO> saleDTOs) {
+        SaleBatchResultDTO[] invalid = new SaleBatchResultDTO[saleDTOs.size()];
+        List<SaleDTO> validSales = new ArrayList<>(saleDTOs.size());
+        for (int i = 0; i < saleDTOs.size(); i++) {
+            SaleDTO saleDTO = saleDTOs.get(i);
+            String error = validationError(saleDTO);
+            if (error != null) {
+                invalid[i] = new SaleBatchResultDTO(saleDTO != null ? saleDTO.getClientSaleId() : null, SaleBatchResultDTO.FAILED, null, error);
+            } else {
+                validSales.add(saleDTO);
+            }
+        }
+        
+        List<SaleBatchResultDTO> written;
+        try {
+            written = transactionTemplate.execute(status -> createSalesInOneTransaction(validSales));
+        } catch (RuntimeException e) {
+            written = new ArrayList<>(validSales.size());
+            for (SaleDTO saleDTO : validSales) {
+                written.add(createSaleInOwnTransaction(saleDTO));
+            }
+        }
+        
+        List<SaleBatchResultDTO> results = new ArrayList<>(saleDTOs.size());
+        Iterator<SaleBatchResultDTO> writtenResults = written.iterator();
+        for (SaleBatchResultDTO result : invalid) {
+            results.add(result != null ? result : writtenResults.next());
+        }
+        return results;
+    }
+    
+    // Bean validation errors of a sale, in the same "field: message" form as the single sale endpoint,
+    // or null when it is valid
+    private String validationError(SaleDTO saleDTO) {
+        if (saleDTO == null) {
+            return "Sale is required";
+        }
+        Set<ConstraintViolation<SaleDTO>> violations = validator.validate(saleDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private List<SaleBatchResultDTO> createSalesInOneTransaction(List<SaleDTO> saleDTOs) {
+        Set<UUID> clientSaleIds = saleDTOs.stream()
+                .map(SaleDTO::getClientSaleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, SaleDTO> recorded = new HashMap<>();
+        if (!clientSaleIds.isEmpty()) {
+            saleRepository.findByClientSaleIdIn(clientSaleIds)
+                    .forEach(sale -> recorded.put(sale.getClientSaleId(), convertToDTO(sale)));
+        }
+        
+        List<SaleBatchResultDTO> results = new ArrayList<>(saleDTOs.size());
+        int written = 0;
+        for (SaleDTO saleDTO : saleDTOs) {
+            UUID clientSaleId = saleDTO.getClientSaleId();
+            // Already recorded by an earlier upload, or listed twice in this one
+            if (clientSaleId != null && recorded.containsKey(clientSaleId)) {
+                results.add(new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.DUPLICATE, recorded.get(clientSaleId), null));
+                continue;
+            }
+            SaleDTO created = createSale(saleDTO, offlineSaleDate(saleDTO));
+            if (clientSaleId != null) {
+                recorded.put(clientSaleId, created);
+            }
+            results.add(new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.CREATED, created, null));
+            
+            // Keep the persistence context small on large uploads
+            if (++written % UPLOAD_CHUNK_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return results;
+    }
+    
+    private SaleBatchResultDTO createSaleInOwnTransaction(SaleDTO saleDTO) {
+        UUID clientSaleId = saleDTO.getClientSaleId();
+        try {
+            return transactionTemplate.execute(status -> recordAcceptedSale(saleDTO));
+        } catch (DataIntegrityViolationException e) {
+            // Recorded concurrently by another upload of the same sale
+            Optional<SaleDTO> original = clientSaleId != null ? getSaleByClientSaleId(clientSaleId) : Optional.empty();
+            if (original.isPresent()) {
+                return new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.DUPLICATE, original.get(), null);
+            }
+            return new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.FAILED, null, e.getMessage());
+        } catch (RuntimeException e) {
+            return new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.FAILED, null, e.getMessage());
+        }
+    }
+    
+    // Record a sale accepted earlier (queued offline or journaled) at its own sale time. Idempotent on
+    // clientSaleId: a sale already recorded under the id is returned as a DUPLICATE instead of created again
+    public SaleBatchResultDTO recordAcceptedSale(SaleDTO saleDTO) {
+        UUID clientSaleId = saleDTO.getClientSaleId();
+        Optional<Sale> existing = clientSaleId != null ? saleRepository.findByClientSaleId(clientSaleId) : Optional.empty();
+        if (existing.isPresent()) {
+            return new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.DUPLICATE, convertToDTO(existing.get()), null);
+        }
+        return new SaleBatchResultDTO(clientSaleId, SaleBatchResultDTO.CREATED, createSale(saleDTO, offlineSaleDate(saleDTO)), null);
+    }
+    
+    // Offline sales keep the time they were rung up at the till
+    private static LocalDateTime offlineSaleDate(SaleDTO saleDTO) {
+        return saleDTO.getSaleDate() != null ? saleDTO.getSaleDate() : LocalDateTime.now();
+    }
+    
+    private SaleDTO createSale(SaleDTO saleDTO, LocalDateTime saleDate) {
         Sale sale = new Sale();
-        sale.setSaleDate(LocalDateTime.now());
+        sale.setSaleDate(saleDate);
         sale.setPaymentMethod(saleDTO.getPaymentMethod());
+        sale.setClientSaleId(saleDTO.getClientSaleId());
         
         // Set the user relationship
         if (saleDTO.getUserId() != null) {
@@ -106,70 +400,50 @@ public class SaleService {
         }
         // Note: User is optional to handle existing data without user associations
         
+        // Resolve every catalogue item in the basket with one query instead of a findById per line
+        Map<Long, Item> itemsById = findItemsById(saleDTO.getSaleItems());
+        
+        // Check stock availability for the whole basket up front - prevent sale if quantity exceeds available stock.
+        // The same item can appear on several lines, so requested quantities are summed per item first.
+        // Items can be added to cart and edited, but sale cannot complete if insufficient stock
+        Map<Long, Integer> requestedQuantities = new LinkedHashMap<>();
+        for (SaleItemDTO saleItemDTO : saleDTO.getSaleItems()) {
+            if (saleItemDTO.getItemId() != null) {
+                requestedQuantities.merge(saleItemDTO.getItemId(), saleItemDTO.getQuantity(), Integer::sum);
+            }
+        }
+        for (Map.Entry<Long, Integer> requested : requestedQuantities.entrySet()) {
+            Item item = itemsById.get(requested.getKey());
+            if (item == null) {
+                throw new RuntimeException("Item not found with ID: " + requested.getKey());
+            }
+            if (item.getStockQuantity() < requested.getValue()) {
+                throw new RuntimeException("Insufficient stock for item: " + item.getName() + 
+                    ". Available: " + item.getStockQuantity() + ", Requested: " + requested.getValue());
+            }
+        }
+        
         BigDecimal totalAmount = BigDecimal.ZERO;
         
         for (SaleItemDTO saleItemDTO : saleDTO.getSaleItems()) {
             SaleItem saleItem = new SaleItem();
             saleItem.setSale(sale);
-            saleItem.setQuantity(saleItemDTO.getQuantity());
-            saleItem.setUnitPrice(saleItemDTO.getUnitPrice());
-            saleItem.setTotalPrice(saleItemDTO.getTotalPrice());
-            
-            // Handle quick sales (itemId is null) vs regular item sales
-            if (saleItemDTO.getItemId() != null) {
-                Optional<Item> itemOpt = itemRepository.findById(saleItemDTO.getItemId());
-                if (itemOpt.isPresent()) {
-                    Item item = itemOpt.get();
-                    
-                    // Check stock availability - prevent sale if quantity exceeds available stock
-                    // Items can be added to cart and edited, but sale cannot complete if insufficient stock
-                    if (item.getStockQuantity() < saleItemDTO.getQuantity()) {
-                        throw new RuntimeException("Insufficient stock for item: " + item.getName() + 
-                            ". Available: " + item.getStockQuantity() + ", Requested: " + saleItemDTO.getQuantity());
-                    }
-                    
-                    saleItem.setItem(item);
-                    saleItem.setItemName(item.getName());
-                    saleItem.setItemBarcode(item.getBarcode());
-                    saleItem.setBatchId(saleItemDTO.getBatchId()); // Set batch ID from DTO
-                    
-                    // Calculate VAT
-                    BigDecimal vatRate = item.getVatRate() != null ? item.getVatRate() : new BigDecimal("23.00");
-                    BigDecimal totalPriceIncludingVat = saleItemDTO.getTotalPrice();
-                    BigDecimal totalPriceExcludingVat = totalPriceIncludingVat.divide(BigDecimal.ONE.add(vatRate.divide(new BigDecimal("100"))), 2, BigDecimal.ROUND_HALF_UP);
-                    BigDecimal totalVatAmount = totalPriceIncludingVat.subtract(totalPriceExcludingVat);
-                    
-                    saleItem.setVatRate(vatRate);
-                    saleItem.setVatAmount(totalVatAmount);
-                    saleItem.setPriceExcludingVat(totalPriceExcludingVat);
-                    
-                    // Update stock
-                    item.setStockQuantity(item.getStockQuantity() - saleItemDTO.getQuantity());
-                    itemRepository.save(item);
-                } else {
-                    throw new RuntimeException("Item not found with ID: " + saleItemDTO.getItemId());
-                }
-            } else {
-                // Quick sale - no specific item, just a cash transaction
-                saleItem.setItem(null);
-                saleItem.setItemName(saleItemDTO.getItemName() != null ? saleItemDTO.getItemName() : "Quick Sale");
-                saleItem.setItemBarcode(saleItemDTO.getItemBarcode() != null ? saleItemDTO.getItemBarcode() : "N/A");
-                saleItem.setBatchId(null); // Quick sales don't have batch IDs
-                
-                // For quick sales, assume standard VAT rate
-                BigDecimal vatRate = new BigDecimal("23.00");
-                BigDecimal totalPriceIncludingVat = saleItemDTO.getTotalPrice();
-                BigDecimal totalPriceExcludingVat = totalPriceIncludingVat.divide(BigDecimal.ONE.add(vatRate.divide(new BigDecimal("100"))), 2, BigDecimal.ROUND_HALF_UP);
-                BigDecimal totalVatAmount = totalPriceIncludingVat.subtract(totalPriceExcludingVat);
-                
-                saleItem.setVatRate(vatRate);
-                saleItem.setVatAmount(totalVatAmount);
-                saleItem.setPriceExcludingVat(totalPriceExcludingVat);
-            }
+            fillLine(saleItem, saleItemDTO, itemsById);
             
             sale.getSaleItems().add(saleItem);
-            totalAmount = totalAmount.add(saleItemDTO.getTotalPrice());
+            totalAmount = totalAmount.add(saleItem.getTotalPrice());
+        }
+        
+        // Update stock once per item with conditional decrements sent as one JDBC batch. The check above
+        // reads a snapshot, so another till may have sold the same stock since; the database re-checks
+        // each row atomically and any shortfall rolls the whole sale back
+        List<Long> insufficientStock = itemRepository.decrementStock(requestedQuantities);
+        if (!insufficientStock.isEmpty()) {
+            Item item = itemsById.get(insufficientStock.get(0));
+            throw new RuntimeException("Insufficient stock for item: " + item.getName() + 
+                ". Requested: " + requestedQuantities.get(item.getId()));
         }
+        barcodeIndex.decrementStock(requestedQuantities);
         
         sale.setTotalAmount(totalAmount);
         
@@ -201,9 +475,23 @@ public class SaleService {
         }
         
         Sale savedSale = saleRepository.save(sale);
+        dailySalesRollupService.recordSale(savedSale);
+        saleMetrics.recordSale(savedSale);
         return convertToDTO(savedSale);
     }
     
+    private Map<Long, Item> findItemsById(List<SaleItemDTO> saleItemDTOs) {
+        Set<Long> itemIds = saleItemDTOs.stream()
+                .map(SaleItemDTO::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
+    
     public Double getTotalSalesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         Double total = saleRepository.getTotalSalesByDateRange(startDate, endDate);
         return total != null ? total : 0.0;
@@ -218,6 +506,7 @@ public class SaleService {
         dto.setUserId(sale.getUser() != null ? sale.getUser().getId() : null);
         dto.setNotes(sale.getNotes());
         dto.setSelectedVatRate(sale.getSelectedVatRate());
+        dto.setClientSaleId(sale.getClientSaleId());
         
         List<SaleItemDTO> saleItemDTOs = sale.getSaleItems().stream()
                 .map(this::convertSaleItemToDTO)
@@ -275,514 +564,133 @@ public class SaleService {
         if (saleOpt.isPresent()) {
             Sale sale = saleOpt.get();
             
-            // Simply delete the sale - no inventory restoration
-            // Once items are sold, they're gone from inventory
+            // Return the sold quantities to stock, in one batch like updateSale does for removed lines
+            Map<Long, Integer> stockReturns = new LinkedHashMap<>();
+            for (SaleItem saleItem : sale.getSaleItems()) {
+                if (saleItem.getItem() != null) {
+                    stockReturns.merge(saleItem.getItem().getId(), -saleItem.getQuantity(), Integer::sum);
+                }
+            }
+            itemRepository.decrementStock(stockReturns);
+            barcodeIndex.decrementStock(stockReturns);
+            
+            dailySalesRollupService.removeSale(sale);
             saleRepository.delete(sale);
         } else {
             throw new RuntimeException("Sale not found with ID: " + saleId);
         }
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public DailyReportDTO getDailyReport(LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-
-        List<Sale> allSales = saleRepository.findSalesByDateRangeWithPayments(startOfDay, endOfDay);
-
-        Long totalSales = (long) allSales.size();
-        BigDecimal totalAmount = allSales.stream()
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Long cashSales = allSales.stream()
-                .filter(s -> s.getPaymentMethod() == PaymentMethod.CASH)
-                .count();
-        BigDecimal cashAmount = allSales.stream()
-                .filter(s -> s.getPaymentMethod() == PaymentMethod.CASH)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Long cardSales = allSales.stream()
-                .filter(s -> s.getPaymentMethod() == PaymentMethod.CARD)
-                .count();
-        BigDecimal cardAmount = allSales.stream()
-                .filter(s -> s.getPaymentMethod() == PaymentMethod.CARD)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Add split payment amounts to cash and card totals
-        for (Sale sale : allSales) {
-            if (sale.getPaymentMethod() == PaymentMethod.SPLIT && sale.getSalePayments() != null && !sale.getSalePayments().isEmpty()) {
-                for (SalePayment payment : sale.getSalePayments()) {
-                    if (payment.getPaymentMethod() == PaymentMethod.CASH) {
-                        cashAmount = cashAmount.add(payment.getAmount());
-                    } else if (payment.getPaymentMethod() == PaymentMethod.CARD) {
-                        cardAmount = cardAmount.add(payment.getAmount());
-                    }
-                }
-            }
-        }
-
-        // Calculate VAT totals and breakdown by rate (using already fetched allSales)
-        BigDecimal totalVatAmount = BigDecimal.ZERO;
-        BigDecimal totalAmountExcludingVat = BigDecimal.ZERO;
-        Map<BigDecimal, VatSummaryDTO> vatMap = new HashMap<>();
-        for (Sale sale : allSales) {
-            for (SaleItem item : sale.getSaleItems()) {
-                if (item.getVatAmount() != null) {
-                    totalVatAmount = totalVatAmount.add(item.getVatAmount());
-                }
-                if (item.getPriceExcludingVat() != null) {
-                    totalAmountExcludingVat = totalAmountExcludingVat.add(item.getPriceExcludingVat());
-                }
-                
-                // Group by VAT rate for breakdown
-                if (item.getVatRate() != null) {
-                    BigDecimal vatRate = item.getVatRate();
-                    VatSummaryDTO vatSummary = vatMap.getOrDefault(vatRate, 
-                        new VatSummaryDTO(vatRate, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
-                    
-                    // Gross = totalPrice (including VAT)
-                    vatSummary.setGross(vatSummary.getGross().add(item.getTotalPrice()));
-                    
-                    // VAT amount
-                    if (item.getVatAmount() != null) {
-                        vatSummary.setVatAmount(vatSummary.getVatAmount().add(item.getVatAmount()));
-                    }
-                    
-                    // Net = priceExcludingVat
-                    if (item.getPriceExcludingVat() != null) {
-                        vatSummary.setNet(vatSummary.getNet().add(item.getPriceExcludingVat()));
-                    }
-                    
-                    vatMap.put(vatRate, vatSummary);
-                }
-            }
-        }
-        
-        // Convert VAT map to sorted list (by VAT rate ascending)
-        List<VatSummaryDTO> vatBreakdown = new ArrayList<>(vatMap.values());
-        vatBreakdown.sort((a, b) -> a.getVatRate().compareTo(b.getVatRate()));
-        
-        // Calculate category summaries for all sales
-        Map<String, CategorySummaryDTO> categoryMap = new HashMap<>();
-        Long totalCategoryCount = 0L; // Track total count as we accumulate
-        
-        for (Sale sale : allSales) {
-            for (SaleItem saleItem : sale.getSaleItems()) {
-                String categoryName;
-                if (saleItem.getItem() != null && saleItem.getItem().getCategory() != null) {
-                    categoryName = saleItem.getItem().getCategory().getName();
-                } else {
-                    categoryName = "Quick Sale"; // For quick sales without category
-                }
-                
-                CategorySummaryDTO categorySummary = categoryMap.getOrDefault(categoryName, 
-                    new CategorySummaryDTO(categoryName, BigDecimal.ZERO, 0L));
-                
-                categorySummary.setTotal(categorySummary.getTotal().add(saleItem.getTotalPrice()));
-                categorySummary.setCount(categorySummary.getCount() + saleItem.getQuantity());
-                
-                categoryMap.put(categoryName, categorySummary);
-                
-                // Accumulate total count directly from sale items
-                totalCategoryCount += saleItem.getQuantity();
-            }
-        }
-        
-        // Convert map to list and add total
-        List<CategorySummaryDTO> categories = new ArrayList<>(categoryMap.values());
-        categories.sort((a, b) -> b.getTotal().compareTo(a.getTotal())); // Sort by total descending
-        
-        // Add total row with the accumulated count
-        categories.add(new CategorySummaryDTO("Total", totalAmount, totalCategoryCount));
-        
-        DailyReportDTO report = new DailyReportDTO(date, totalSales, totalAmount, cashSales, cashAmount, cardSales, cardAmount);
-        report.setTotalVatAmount(totalVatAmount);
-        report.setTotalAmountExcludingVat(totalAmountExcludingVat);
-        report.setCategories(categories);
-        report.setVatBreakdown(vatBreakdown);
-        
-        return report;
+        return getDailyReportByDateRangeForAdmin(date, date);
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public DailyReportDTO getDailyReportByUser(LocalDate date, Long userId) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-
-        // Get user-specific sales (eager-fetch salePayments so SPLIT cash/card amounts are included)
-        List<Sale> userSales = saleRepository.findSalesByUserIdAndDateRangeWithPayments(userId, startOfDay, endOfDay);
-        
-        // Calculate totals
-        Long totalSales = (long) userSales.size();
-        BigDecimal totalAmount = userSales.stream()
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate cash sales
-        Long cashSales = userSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CASH)
-                .count();
-        BigDecimal cashAmount = userSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CASH)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate card sales
-        Long cardSales = userSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CARD)
-                .count();
-        BigDecimal cardAmount = userSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CARD)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Fold split payments into their respective cash/card totals
-        for (Sale sale : userSales) {
-            if (sale.getPaymentMethod() == PaymentMethod.SPLIT && sale.getSalePayments() != null && !sale.getSalePayments().isEmpty()) {
-                for (SalePayment payment : sale.getSalePayments()) {
-                    if (payment.getPaymentMethod() == PaymentMethod.CASH) {
-                        cashAmount = cashAmount.add(payment.getAmount());
-                    } else if (payment.getPaymentMethod() == PaymentMethod.CARD) {
-                        cardAmount = cardAmount.add(payment.getAmount());
-                    }
-                }
-            }
-        }
-
-        // Calculate VAT totals and breakdown by rate for user sales
-        BigDecimal totalVatAmount = BigDecimal.ZERO;
-        BigDecimal totalAmountExcludingVat = BigDecimal.ZERO;
-        Map<BigDecimal, VatSummaryDTO> vatMap = new HashMap<>();
-        
-        for (Sale sale : userSales) {
-            for (SaleItem item : sale.getSaleItems()) {
-                if (item.getVatAmount() != null) {
-                    totalVatAmount = totalVatAmount.add(item.getVatAmount());
-                }
-                if (item.getPriceExcludingVat() != null) {
-                    totalAmountExcludingVat = totalAmountExcludingVat.add(item.getPriceExcludingVat());
-                }
-                
-                // Group by VAT rate for breakdown
-                if (item.getVatRate() != null) {
-                    BigDecimal vatRate = item.getVatRate();
-                    VatSummaryDTO vatSummary = vatMap.getOrDefault(vatRate, 
-                        new VatSummaryDTO(vatRate, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
-                    
-                    vatSummary.setGross(vatSummary.getGross().add(item.getTotalPrice()));
-                    if (item.getVatAmount() != null) {
-                        vatSummary.setVatAmount(vatSummary.getVatAmount().add(item.getVatAmount()));
-                    }
-                    if (item.getPriceExcludingVat() != null) {
-                        vatSummary.setNet(vatSummary.getNet().add(item.getPriceExcludingVat()));
-                    }
-                    
-                    vatMap.put(vatRate, vatSummary);
-                }
-            }
-        }
-        
-        // Convert VAT map to sorted list (by VAT rate ascending)
-        List<VatSummaryDTO> vatBreakdown = new ArrayList<>(vatMap.values());
-        vatBreakdown.sort((a, b) -> a.getVatRate().compareTo(b.getVatRate()));
-        
-        // Calculate category summaries
-        Map<String, CategorySummaryDTO> categoryMap = new HashMap<>();
-        
-        for (Sale sale : userSales) {
-            for (SaleItem saleItem : sale.getSaleItems()) {
-                String categoryName;
-                if (saleItem.getItem() != null && saleItem.getItem().getCategory() != null) {
-                    categoryName = saleItem.getItem().getCategory().getName();
-                } else {
-                    categoryName = "Quick Sale"; // For quick sales without category
-                }
-                
-                CategorySummaryDTO categorySummary = categoryMap.getOrDefault(categoryName, 
-                    new CategorySummaryDTO(categoryName, BigDecimal.ZERO, 0L));
-                
-                categorySummary.setTotal(categorySummary.getTotal().add(saleItem.getTotalPrice()));
-                categorySummary.setCount(categorySummary.getCount() + saleItem.getQuantity());
-                
-                categoryMap.put(categoryName, categorySummary);
-            }
-        }
-        
-        // Convert map to list and add total
-        List<CategorySummaryDTO> categories = new ArrayList<>(categoryMap.values());
-        categories.sort((a, b) -> b.getTotal().compareTo(a.getTotal())); // Sort by total descending
-        
-        // Calculate total count as sum of all category counts (not number of transactions)
-        Long totalCategoryCount = categories.stream()
-                .mapToLong(CategorySummaryDTO::getCount)
-                .sum();
-        
-        // Add total row
-        categories.add(new CategorySummaryDTO("Total", totalAmount, totalCategoryCount));
-        
-        DailyReportDTO report = new DailyReportDTO(date, totalSales, totalAmount, cashSales, cashAmount, cardSales, cardAmount);
-        report.setTotalVatAmount(totalVatAmount);
-        report.setTotalAmountExcludingVat(totalAmountExcludingVat);
-        report.setCategories(categories);
-        report.setVatBreakdown(vatBreakdown);
-        
-        return report;
+        return getDailyReportByUserAndDateRange(date, date, userId);
     }
     
+    // Reports of closed periods are served from the cache without touching the database
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public DailyReportDTO getDailyReportByUserAndDateRange(LocalDate startDate, LocalDate endDate, Long userId) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-
-        // Get user-specific sales for the date range (eager-fetch salePayments so SPLIT cash/card amounts are included)
-        List<Sale> userSales = saleRepository.findSalesByUserIdAndDateRangeWithPayments(userId, startDateTime, endDateTime);
-        
-        // Calculate totals
-        Long totalSales = (long) userSales.size();
-        BigDecimal totalAmount = userSales.stream()
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate cash sales
-        Long cashSales = userSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CASH)
-                .count();
-        BigDecimal cashAmount = userSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CASH)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate card sales
-        Long cardSales = userSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CARD)
-                .count();
-        BigDecimal cardAmount = userSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CARD)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Fold split payments into their respective cash/card totals
-        for (Sale sale : userSales) {
-            if (sale.getPaymentMethod() == PaymentMethod.SPLIT && sale.getSalePayments() != null && !sale.getSalePayments().isEmpty()) {
-                for (SalePayment payment : sale.getSalePayments()) {
-                    if (payment.getPaymentMethod() == PaymentMethod.CASH) {
-                        cashAmount = cashAmount.add(payment.getAmount());
-                    } else if (payment.getPaymentMethod() == PaymentMethod.CARD) {
-                        cardAmount = cardAmount.add(payment.getAmount());
-                    }
-                }
-            }
-        }
-
-        // Calculate VAT totals and breakdown by rate for user sales
-        BigDecimal totalVatAmount = BigDecimal.ZERO;
-        BigDecimal totalAmountExcludingVat = BigDecimal.ZERO;
-        Map<BigDecimal, VatSummaryDTO> vatMap = new HashMap<>();
-        
-        for (Sale sale : userSales) {
-            for (SaleItem item : sale.getSaleItems()) {
-                if (item.getVatAmount() != null) {
-                    totalVatAmount = totalVatAmount.add(item.getVatAmount());
-                }
-                if (item.getPriceExcludingVat() != null) {
-                    totalAmountExcludingVat = totalAmountExcludingVat.add(item.getPriceExcludingVat());
-                }
-                
-                // Group by VAT rate for breakdown
-                if (item.getVatRate() != null) {
-                    BigDecimal vatRate = item.getVatRate();
-                    VatSummaryDTO vatSummary = vatMap.getOrDefault(vatRate, 
-                        new VatSummaryDTO(vatRate, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
-                    
-                    vatSummary.setGross(vatSummary.getGross().add(item.getTotalPrice()));
-                    if (item.getVatAmount() != null) {
-                        vatSummary.setVatAmount(vatSummary.getVatAmount().add(item.getVatAmount()));
-                    }
-                    if (item.getPriceExcludingVat() != null) {
-                        vatSummary.setNet(vatSummary.getNet().add(item.getPriceExcludingVat()));
-                    }
-                    
-                    vatMap.put(vatRate, vatSummary);
-                }
-            }
+        return dailyReportCache.get(startDate, endDate, userId,
+                () -> computeDailyReportByUserAndDateRange(startDate, endDate, userId));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public DailyReportDTO getDailyReportByDateRangeForAdmin(LocalDate startDate, LocalDate endDate) {
+        return dailyReportCache.get(startDate, endDate, null,
+                () -> computeDailyReportByDateRangeForAdmin(startDate, endDate));
+    }
+    
+    private DailyReportDTO computeDailyReportByUserAndDateRange(LocalDate startDate, LocalDate endDate, Long userId) {
+        if (useRollup) {
+            ReportAggregator aggregator = new ReportAggregator();
+            aggregateRollup(aggregator, dailySalesRollupRepository.sumByUserIdAndDateRange(userId, startDate, endDate));
+            return aggregator.toReport(startDate);
         }
         
-        // Convert VAT map to sorted list (by VAT rate ascending)
-        List<VatSummaryDTO> vatBreakdown = new ArrayList<>(vatMap.values());
-        vatBreakdown.sort((a, b) -> a.getVatRate().compareTo(b.getVatRate()));
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
         
-        // Calculate category summaries
-        Map<String, CategorySummaryDTO> categoryMap = new HashMap<>();
+        // Every figure comes pre-aggregated from the database, so the cost does not grow with the number of sales loaded
+        ReportAggregator aggregator = new ReportAggregator();
+        aggregateSales(aggregator, saleRepository.sumSalesByPaymentMethodAndUserIdAndDateRange(userId, startDateTime, endDateTime));
+        aggregateSplitPayments(aggregator, saleRepository.sumSplitPaymentsByUserIdAndDateRange(userId, startDateTime, endDateTime));
+        aggregateLines(aggregator, saleItemRepository.sumLinesByVatRateAndCategoryAndUserId(userId, startDateTime, endDateTime));
         
-        for (Sale sale : userSales) {
-            for (SaleItem saleItem : sale.getSaleItems()) {
-                String categoryName;
-                if (saleItem.getItem() != null && saleItem.getItem().getCategory() != null) {
-                    categoryName = saleItem.getItem().getCategory().getName();
-                } else {
-                    categoryName = "Quick Sale"; // For quick sales without category
-                }
-                
-                CategorySummaryDTO categorySummary = categoryMap.getOrDefault(categoryName, 
-                    new CategorySummaryDTO(categoryName, BigDecimal.ZERO, 0L));
-                
-                categorySummary.setTotal(categorySummary.getTotal().add(saleItem.getTotalPrice()));
-                categorySummary.setCount(categorySummary.getCount() + saleItem.getQuantity());
-                
-                categoryMap.put(categoryName, categorySummary);
-            }
+        return aggregator.toReport(startDate);
+    }
+    
+    private DailyReportDTO computeDailyReportByDateRangeForAdmin(LocalDate startDate, LocalDate endDate) {
+        if (useRollup) {
+            // A few rows per day regardless of how many sales there were, so long ranges stay cheap
+            ReportAggregator aggregator = new ReportAggregator();
+            aggregateRollup(aggregator, dailySalesRollupRepository.sumByDateRange(startDate, endDate));
+            return aggregator.toReport(startDate);
         }
         
-        // Convert map to list and add total
-        List<CategorySummaryDTO> categories = new ArrayList<>(categoryMap.values());
-        categories.sort((a, b) -> b.getTotal().compareTo(a.getTotal())); // Sort by total descending
-        
-        // Calculate total count as sum of all category counts (not number of transactions)
-        Long totalCategoryCount = categories.stream()
-                .mapToLong(CategorySummaryDTO::getCount)
-                .sum();
-        
-        // Add total row
-        categories.add(new CategorySummaryDTO("Total", totalAmount, totalCategoryCount));
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
         
-        DailyReportDTO report = new DailyReportDTO(startDate, totalSales, totalAmount, cashSales, cashAmount, cardSales, cardAmount);
-        report.setTotalVatAmount(totalVatAmount);
-        report.setTotalAmountExcludingVat(totalAmountExcludingVat);
-        report.setCategories(categories);
-        report.setVatBreakdown(vatBreakdown);
+        // Admin view covers all users
+        ReportAggregator aggregator = new ReportAggregator();
+        aggregateSales(aggregator, saleRepository.sumSalesByPaymentMethodAndDateRange(startDateTime, endDateTime));
+        aggregateSplitPayments(aggregator, saleRepository.sumSplitPaymentsByDateRange(startDateTime, endDateTime));
+        aggregateLines(aggregator, saleItemRepository.sumLinesByVatRateAndCategory(startDateTime, endDateTime));
         
-        return report;
+        return aggregator.toReport(startDate);
     }
     
-    public DailyReportDTO getDailyReportByDateRangeForAdmin(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-
-        // Get all sales for the date range (admin view) - eager-fetch salePayments so SPLIT cash/card amounts are included
-        List<Sale> allSales = saleRepository.findSalesByDateRangeWithPayments(startDateTime, endDateTime);
-        
-        // Calculate totals
-        Long totalSales = (long) allSales.size();
-        BigDecimal totalAmount = allSales.stream()
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate cash sales
-        Long cashSales = allSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CASH)
-                .count();
-        BigDecimal cashAmount = allSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CASH)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate card sales
-        Long cardSales = allSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CARD)
-                .count();
-        BigDecimal cardAmount = allSales.stream()
-                .filter(sale -> sale.getPaymentMethod() == PaymentMethod.CARD)
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Fold split payments into their respective cash/card totals
-        for (Sale sale : allSales) {
-            if (sale.getPaymentMethod() == PaymentMethod.SPLIT && sale.getSalePayments() != null && !sale.getSalePayments().isEmpty()) {
-                for (SalePayment payment : sale.getSalePayments()) {
-                    if (payment.getPaymentMethod() == PaymentMethod.CASH) {
-                        cashAmount = cashAmount.add(payment.getAmount());
-                    } else if (payment.getPaymentMethod() == PaymentMethod.CARD) {
-                        cardAmount = cardAmount.add(payment.getAmount());
-                    }
-                }
-            }
+    // Rows arrive as BigDecimals; the aggregator adds them as cents grouped by VAT basis points and category id
+    private void aggregateRollup(ReportAggregator aggregator, List<Object[]> rollupTotals) {
+        for (Object[] row : rollupTotals) {
+            long grossCents = Money.toCents((BigDecimal) row[6]);
+            aggregator.addSales((PaymentMethod) row[0], (Long) row[4], grossCents);
+            aggregator.addSplitPayment(PaymentMethod.CASH, Money.toCents((BigDecimal) row[9]));
+            aggregator.addSplitPayment(PaymentMethod.CARD, Money.toCents((BigDecimal) row[10]));
+            aggregator.addLines(vatBasisPoints((BigDecimal) row[1]), categoryId((Long) row[2]), (String) row[3], (Long) row[5],
+                grossCents, Money.toCents((BigDecimal) row[7]), Money.toCents((BigDecimal) row[8]));
         }
-
-        // Calculate VAT totals and breakdown by rate for all sales
-        BigDecimal totalVatAmount = BigDecimal.ZERO;
-        BigDecimal totalAmountExcludingVat = BigDecimal.ZERO;
-        Map<BigDecimal, VatSummaryDTO> vatMap = new HashMap<>();
-        
-        for (Sale sale : allSales) {
-            for (SaleItem item : sale.getSaleItems()) {
-                if (item.getVatAmount() != null) {
-                    totalVatAmount = totalVatAmount.add(item.getVatAmount());
-                }
-                if (item.getPriceExcludingVat() != null) {
-                    totalAmountExcludingVat = totalAmountExcludingVat.add(item.getPriceExcludingVat());
-                }
-                
-                // Group by VAT rate for breakdown
-                if (item.getVatRate() != null) {
-                    BigDecimal vatRate = item.getVatRate();
-                    VatSummaryDTO vatSummary = vatMap.getOrDefault(vatRate, 
-                        new VatSummaryDTO(vatRate, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
-                    
-                    vatSummary.setGross(vatSummary.getGross().add(item.getTotalPrice()));
-                    if (item.getVatAmount() != null) {
-                        vatSummary.setVatAmount(vatSummary.getVatAmount().add(item.getVatAmount()));
-                    }
-                    if (item.getPriceExcludingVat() != null) {
-                        vatSummary.setNet(vatSummary.getNet().add(item.getPriceExcludingVat()));
-                    }
-                    
-                    vatMap.put(vatRate, vatSummary);
-                }
-            }
+    }
+    
+    private void aggregateSales(ReportAggregator aggregator, List<Object[]> salesByPaymentMethod) {
+        for (Object[] row : salesByPaymentMethod) {
+            aggregator.addSales((PaymentMethod) row[0], (Long) row[1], Money.toCents((BigDecimal) row[2]));
         }
-        
-        // Convert VAT map to sorted list (by VAT rate ascending)
-        List<VatSummaryDTO> vatBreakdown = new ArrayList<>(vatMap.values());
-        vatBreakdown.sort((a, b) -> a.getVatRate().compareTo(b.getVatRate()));
-        
-        // Calculate category summaries
-        Map<String, CategorySummaryDTO> categoryMap = new HashMap<>();
-        
-        for (Sale sale : allSales) {
-            for (SaleItem saleItem : sale.getSaleItems()) {
-                String categoryName;
-                if (saleItem.getItem() != null && saleItem.getItem().getCategory() != null) {
-                    categoryName = saleItem.getItem().getCategory().getName();
-                } else {
-                    categoryName = "Quick Sale"; // For quick sales without category
-                }
-                
-                CategorySummaryDTO categorySummary = categoryMap.getOrDefault(categoryName, 
-                    new CategorySummaryDTO(categoryName, BigDecimal.ZERO, 0L));
-                
-                categorySummary.setTotal(categorySummary.getTotal().add(saleItem.getTotalPrice()));
-                categorySummary.setCount(categorySummary.getCount() + saleItem.getQuantity());
-                
-                categoryMap.put(categoryName, categorySummary);
-            }
+    }
+    
+    private void aggregateSplitPayments(ReportAggregator aggregator, List<Object[]> splitPaymentTotals) {
+        for (Object[] row : splitPaymentTotals) {
+            aggregator.addSplitPayment((PaymentMethod) row[0], Money.toCents((BigDecimal) row[1]));
         }
-        
-        // Convert map to list and add total
-        List<CategorySummaryDTO> categories = new ArrayList<>(categoryMap.values());
-        categories.sort((a, b) -> b.getTotal().compareTo(a.getTotal())); // Sort by total descending
-        
-        // Calculate total count as sum of all category counts (not number of transactions)
-        Long totalCategoryCount = categories.stream()
-                .mapToLong(CategorySummaryDTO::getCount)
-                .sum();
-        
-        // Add total row
-        categories.add(new CategorySummaryDTO("Total", totalAmount, totalCategoryCount));
-        
-        DailyReportDTO report = new DailyReportDTO(startDate, totalSales, totalAmount, cashSales, cashAmount, cardSales, cardAmount);
-        report.setTotalVatAmount(totalVatAmount);
-        report.setTotalAmountExcludingVat(totalAmountExcludingVat);
-        report.setCategories(categories);
-        report.setVatBreakdown(vatBreakdown);
-        
-        return report;
     }
     
+    private void aggregateLines(ReportAggregator aggregator, List<Object[]> lineTotals) {
+        for (Object[] row : lineTotals) {
+            aggregator.addLines(vatBasisPoints((BigDecimal) row[0]), categoryId((Long) row[1]), (String) row[2], (Long) row[3],
+                Money.toCents((BigDecimal) row[4]), Money.toCents((BigDecimal) row[5]), Money.toCents((BigDecimal) row[6]));
+        }
+    }
+    
+    private static int vatBasisPoints(BigDecimal vatRate) {
+        return vatRate != null ? (int) Money.toCents(vatRate) : ReportAggregator.NO_VAT_RATE;
+    }
+    
+    private static long categoryId(Long categoryId) {
+        return categoryId != null ? categoryId : ReportAggregator.NO_CATEGORY;
+    }
+    
+    // Edits are applied as a diff against the stored lines: lines sent back as they are stay untouched,
+    // changed lines are updated in place, new lines are inserted in one batch and removed lines are deleted
+    // in one statement. Lines match by id; a line sent without an id matches an identical stored line
     public SaleDTO updateSale(Long id, SaleDTO saleDTO) {
         Sale existingSale = saleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Sale not found with id: " + id));
         
-        // No inventory restoration - once sold, items are gone
+        // Take the sale's old figures out of the rollup before any of its fields change
+        dailySalesRollupService.removeSale(existingSale);
         
         // Update basic sale information
         existingSale.setPaymentMethod(saleDTO.getPaymentMethod());
@@ -794,67 +702,158 @@ public class SaleService {
             existingSale.setUser(user);
         }
         
-        // Delete existing sale items from database first
-        for (SaleItem existingItem : existingSale.getSaleItems()) {
-            saleItemRepository.delete(existingItem);
+        // Stock moves by the difference between the new and the old quantity of each item
+        Map<Long, SaleItem> remainingLines = new LinkedHashMap<>();
+        Map<Long, Integer> stockChanges = new LinkedHashMap<>();
+        for (SaleItem saleItem : existingSale.getSaleItems()) {
+            remainingLines.put(saleItem.getId(), saleItem);
+            if (saleItem.getItem() != null) {
+                stockChanges.merge(saleItem.getItem().getId(), -saleItem.getQuantity(), Integer::sum);
+            }
         }
-        existingSale.getSaleItems().clear();
-        
-        // Add new sale items with VAT calculations
-        BigDecimal totalAmount = BigDecimal.ZERO;
         for (SaleItemDTO saleItemDTO : saleDTO.getSaleItems()) {
-            SaleItem saleItem = new SaleItem();
-            saleItem.setSale(existingSale);
-            saleItem.setQuantity(saleItemDTO.getQuantity());
-            saleItem.setUnitPrice(saleItemDTO.getUnitPrice());
-            saleItem.setTotalPrice(saleItemDTO.getTotalPrice());
-            
             if (saleItemDTO.getItemId() != null) {
-                Optional<Item> itemOpt = itemRepository.findById(saleItemDTO.getItemId());
-                if (itemOpt.isPresent()) {
-                    Item item = itemOpt.get();
-                    saleItem.setItem(item);
-                    saleItem.setItemName(item.getName());
-                    saleItem.setItemBarcode(item.getBarcode());
-                    saleItem.setBatchId(saleItemDTO.getBatchId());
-                    
-                    // Calculate VAT for regular items
-                    BigDecimal vatRate = item.getVatRate() != null ? item.getVatRate() : new BigDecimal("23.00");
-                    BigDecimal totalPriceIncludingVat = saleItemDTO.getTotalPrice();
-                    BigDecimal totalPriceExcludingVat = totalPriceIncludingVat.divide(BigDecimal.ONE.add(vatRate.divide(new BigDecimal("100"))), 2, BigDecimal.ROUND_HALF_UP);
-                    BigDecimal totalVatAmount = totalPriceIncludingVat.subtract(totalPriceExcludingVat);
-                    
-                    saleItem.setVatRate(vatRate);
-                    saleItem.setVatAmount(totalVatAmount);
-                    saleItem.setPriceExcludingVat(totalPriceExcludingVat);
-                    
-                    // No stock management - items are sold as-is
-                }
+                stockChanges.merge(saleItemDTO.getItemId(), saleItemDTO.getQuantity(), Integer::sum);
+            }
+        }
+        stockChanges.values().removeIf(quantity -> quantity == 0);
+        
+        Map<SaleItem, SaleItemDTO> changedLines = new LinkedHashMap<>();
+        List<SaleItemDTO> unmatchedLines = new ArrayList<>();
+        for (SaleItemDTO saleItemDTO : saleDTO.getSaleItems()) {
+            SaleItem saleItem = saleItemDTO.getId() != null ? remainingLines.remove(saleItemDTO.getId()) : null;
+            if (saleItem == null) {
+                unmatchedLines.add(saleItemDTO);
+            } else if (!isSameLine(saleItem, saleItemDTO)) {
+                changedLines.put(saleItem, saleItemDTO);
+            }
+        }
+        List<SaleItemDTO> newLines = new ArrayList<>();
+        for (SaleItemDTO saleItemDTO : unmatchedLines) {
+            Optional<SaleItem> sameLine = remainingLines.values().stream()
+                    .filter(saleItem -> isSameLine(saleItem, saleItemDTO))
+                    .findFirst();
+            if (sameLine.isPresent()) {
+                remainingLines.remove(sameLine.get().getId());
             } else {
-                // Quick sale with default VAT
-                saleItem.setItem(null);
-                saleItem.setItemName(saleItemDTO.getItemName() != null ? saleItemDTO.getItemName() : "Quick Sale");
-                saleItem.setItemBarcode(saleItemDTO.getItemBarcode() != null ? saleItemDTO.getItemBarcode() : "N/A");
-                saleItem.setBatchId(null);
-                
-                // Calculate VAT for quick sales (default 23%)
-                BigDecimal vatRate = new BigDecimal("23.00");
-                BigDecimal totalPriceIncludingVat = saleItemDTO.getTotalPrice();
-                BigDecimal totalPriceExcludingVat = totalPriceIncludingVat.divide(BigDecimal.ONE.add(vatRate.divide(new BigDecimal("100"))), 2, BigDecimal.ROUND_HALF_UP);
-                BigDecimal totalVatAmount = totalPriceIncludingVat.subtract(totalPriceExcludingVat);
-                
-                saleItem.setVatRate(vatRate);
-                saleItem.setVatAmount(totalVatAmount);
-                saleItem.setPriceExcludingVat(totalPriceExcludingVat);
+                newLines.add(saleItemDTO);
             }
-            
-            existingSale.getSaleItems().add(saleItem);
-            totalAmount = totalAmount.add(saleItemDTO.getTotalPrice());
         }
         
+        // Only changed and new lines need their items, resolved with one query
+        List<SaleItemDTO> linesToWrite = new ArrayList<>(changedLines.values());
+        linesToWrite.addAll(newLines);
+        Map<Long, Item> itemsById = findItemsById(linesToWrite);
+        
+        // Changed lines are written by dirty checking and new ones persisted; both go out as JDBC batches
+        changedLines.forEach((saleItem, saleItemDTO) -> fillLine(saleItem, saleItemDTO, itemsById));
+        List<SaleItem> createdLines = new ArrayList<>(newLines.size());
+        for (SaleItemDTO saleItemDTO : newLines) {
+            SaleItem saleItem = new SaleItem();
+            saleItem.setSale(existingSale);
+            fillLine(saleItem, saleItemDTO, itemsById);
+            createdLines.add(saleItem);
+        }
+        saleItemRepository.saveAll(createdLines);
+        
+        // Lines left over were removed from the sale
+        if (!remainingLines.isEmpty()) {
+            existingSale.getSaleItems().removeAll(remainingLines.values());
+            saleItemRepository.deleteByIds(remainingLines.keySet());
+            remainingLines.values().forEach(entityManager::detach);
+        }
+        existingSale.getSaleItems().addAll(createdLines);
+        
+        // Take added quantities from stock and return removed ones, in one conditional batch like checkout
+        List<Long> insufficientStock = itemRepository.decrementStock(stockChanges);
+        if (!insufficientStock.isEmpty()) {
+            Long itemId = insufficientStock.get(0);
+            Item item = itemsById.get(itemId);
+            throw new RuntimeException("Insufficient stock for item: " + (item != null ? item.getName() : itemId) + 
+                ". Requested: " + stockChanges.get(itemId) + " more");
+        }
+        barcodeIndex.decrementStock(stockChanges);
+        
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (SaleItem saleItem : existingSale.getSaleItems()) {
+            totalAmount = totalAmount.add(saleItem.getTotalPrice());
+        }
         existingSale.setTotalAmount(totalAmount);
         
         Sale updatedSale = saleRepository.save(existingSale);
+        dailySalesRollupService.recordSale(updatedSale);
         return convertToDTO(updatedSale);
     }
+    
+    // Copy a submitted line onto a sale line, with its VAT split. A catalogue line sent without a unit price
+    // is sold at the item's shelf price, and one sent without a total is priced at unit price times quantity
+    private void fillLine(SaleItem saleItem, SaleItemDTO saleItemDTO, Map<Long, Item> itemsById) {
+        Item item = null;
+        if (saleItemDTO.getItemId() != null) {
+            item = itemsById.get(saleItemDTO.getItemId());
+            if (item == null) {
+                throw new RuntimeException("Item not found with ID: " + saleItemDTO.getItemId());
+            }
+        }
+        BigDecimal unitPrice = saleItemDTO.getUnitPrice() != null ? saleItemDTO.getUnitPrice()
+                : item != null ? item.getPrice() : null;
+        if (unitPrice == null) {
+            throw new RuntimeException("Unit price is required for quick sales");
+        }
+        
+        saleItem.setQuantity(saleItemDTO.getQuantity());
+        saleItem.setUnitPrice(unitPrice);
+        if (saleItemDTO.getTotalPrice() != null) {
+            saleItem.setTotalPrice(saleItemDTO.getTotalPrice());
+        }
+        
+        // Handle quick sales (itemId is null) vs regular item sales
+        if (item != null) {
+            saleItem.setItem(item);
+            saleItem.setItemName(item.getName());
+            saleItem.setItemBarcode(item.getBarcode());
+            saleItem.setBatchId(saleItemDTO.getBatchId()); // Set batch ID from DTO
+            saleItem.setCategoryId(item.getCategory() != null ? item.getCategory().getId() : null);
+            vatCalculator.applyToLine(saleItem, item);
+        } else {
+            // Quick sale - no specific item, just a cash transaction
+            saleItem.setItem(null);
+            saleItem.setItemName(quickSaleName(saleItemDTO));
+            saleItem.setItemBarcode(quickSaleBarcode(saleItemDTO));
+            saleItem.setBatchId(null); // Quick sales don't have batch IDs
+            saleItem.setCategoryId(null);
+            
+            // For quick sales, assume standard VAT rate
+            vatCalculator.applyToLine(saleItem, null);
+        }
+    }
+    
+    // Whether a stored line already holds what was submitted for it. A line sent without a price is
+    // never the same, so it is filled again at the item's shelf price
+    private static boolean isSameLine(SaleItem saleItem, SaleItemDTO saleItemDTO) {
+        Long itemId = saleItem.getItem() != null ? saleItem.getItem().getId() : null;
+        if (!Objects.equals(itemId, saleItemDTO.getItemId())
+                || !Objects.equals(saleItem.getQuantity(), saleItemDTO.getQuantity())
+                || !isSamePrice(saleItem.getUnitPrice(), saleItemDTO.getUnitPrice())
+                || !isSamePrice(saleItem.getTotalPrice(), saleItemDTO.getTotalPrice())) {
+            return false;
+        }
+        if (itemId != null) {
+            return Objects.equals(saleItem.getBatchId(), saleItemDTO.getBatchId());
+        }
+        return Objects.equals(saleItem.getItemName(), quickSaleName(saleItemDTO))
+                && Objects.equals(saleItem.getItemBarcode(), quickSaleBarcode(saleItemDTO));
+    }
+    
+    private static boolean isSamePrice(BigDecimal stored, BigDecimal submitted) {
+        return submitted != null && stored.compareTo(submitted) == 0;
+    }
+    
+    private static String quickSaleName(SaleItemDTO saleItemDTO) {
+        return saleItemDTO.getItemName() != null ? saleItemDTO.getItemName() : "Quick Sale";
+    }
+    
+    private static String quickSaleBarcode(SaleItemDTO saleItemDTO) {
+        return saleItemDTO.getItemBarcode() != null ? saleItemDTO.getItemBarcode() : "N/A";
+    }
 }
@@ -0,0 +1,204 @@
+package com.picknpay.service;
+
+import com.picknpay.dto.ItemImportResultDTO;
+import com.picknpay.dto.StockCountDTO;
+import com.picknpay.dto.StockCountResultDTO;
+import com.picknpay.dto.StockTakeDTO;
+import com.picknpay.dto.StockTakeVarianceDTO;
+import com.picknpay.entity.StockTake;
+import com.picknpay.entity.StockTakeStatus;
+import com.picknpay.repository.StockTakeRepository;
+import com.picknpay.util.CsvReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Stock-take sessions. Counted quantities are uploaded by barcode into a staging table, the variances
+ * against item stock are computed in SQL, and applying the stock take adjusts every counted item in
+ * one set-based statement that also logs the adjustments.
+ */
+@Service
+@Transactional
+public class StockTakeService {
+
+    private static final int COUNT_BATCH_SIZE = 1000;
+    private static final int INDEX_BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private StockTakeRepository stockTakeRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    public StockTakeDTO createStockTake(String name, Long userId) {
+        String stockTakeName = name != null && !name.isBlank() ? name.trim() : "Stock take " + LocalDateTime.now().toLocalDate();
+        return convertToDTO(stockTakeRepository.save(new StockTake(stockTakeName, userId)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockTakeDTO> getAllStockTakes() {
+        return stockTakeRepository.findAllByOrderByCreatedAtDesc().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public StockTakeDTO getStockTake(Long id) {
+        return convertToDTO(findStockTake(id));
+    }
+
+    // Counts sent as JSON; a barcode listed more than once keeps its last count. Invalid entries are
+    // skipped and reported by position (line 1 is the first entry)
+    public StockCountResultDTO recordCounts(Long id, List<StockCountDTO> counts) {
+        requireOpen(lockStockTake(id));
+        StockCountResultDTO result = new StockCountResultDTO();
+        Map<String, Integer> quantitiesByBarcode = new LinkedHashMap<>();
+        for (int i = 0; i < counts.size(); i++) {
+            StockCountDTO count = counts.get(i);
+            String barcode = count.getBarcode() != null ? count.getBarcode().trim() : "";
+            String quantity = count.getQuantity() != null ? count.getQuantity().toString() : "";
+            result.setRowsRead(result.getRowsRead() + 1);
+
+            String error = validateCount(barcode, quantity);
+            if (error != null) {
+                addError(result, i + 1, barcode, error);
+                continue;
+            }
+            quantitiesByBarcode.put(barcode, count.getQuantity());
+            result.setCounted(result.getCounted() + 1);
+        }
+        stockTakeRepository.upsertCounts(id, quantitiesByBarcode, LocalDateTime.now());
+        return result;
+    }
+
+    // Counts streamed as CSV rows of barcode,quantity (a header row is optional), staged in JDBC batches.
+    // Invalid rows are skipped and reported with their line number
+    public StockCountResultDTO recordCounts(Long id, Reader input) throws IOException {
+        requireOpen(lockStockTake(id));
+        StockCountResultDTO result = new StockCountResultDTO();
+        LocalDateTime countedAt = LocalDateTime.now();
+        Map<String, Integer> batch = new LinkedHashMap<>();
+
+        try (CsvReader csv = new CsvReader(input)) {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (record.stream().allMatch(String::isBlank)) {
+                    continue;
+                }
+                String barcode = record.get(0).trim();
+                String quantity = record.size() > 1 ? record.get(1).trim() : "";
+                if (csv.getRecordLine() == 1 && !quantity.isEmpty() && !Character.isDigit(quantity.charAt(0))) {
+                    // Header row
+                    continue;
+                }
+                result.setRowsRead(result.getRowsRead() + 1);
+
+                String error = validateCount(barcode, quantity);
+                if (error != null) {
+                    addError(result, csv.getRecordLine(), barcode, error);
+                    continue;
+                }
+                batch.put(barcode, Integer.valueOf(quantity));
+                result.setCounted(result.getCounted() + 1);
+                if (batch.size() == COUNT_BATCH_SIZE) {
+                    stockTakeRepository.upsertCounts(id, batch, countedAt);
+                    batch.clear();
+                }
+            }
+        }
+        stockTakeRepository.upsertCounts(id, batch, countedAt);
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockTakeVarianceDTO> getVariances(Long id) {
+        findStockTake(id);
+        return stockTakeRepository.findVariances(id);
+    }
+
+    // Adjust stock for every counted item whose count differs, in one statement, and close the stock take
+    public StockTakeDTO applyStockTake(Long id) {
+        StockTake stockTake = lockStockTake(id);
+        requireOpen(stockTake);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> adjustedBarcodes = stockTakeRepository.applyVariances(id, now);
+        stockTake.setStatus(StockTakeStatus.APPLIED);
+        stockTake.setClosedAt(now);
+        stockTake.setAdjustedItems(adjustedBarcodes.size());
+        stockTakeRepository.save(stockTake);
+
+        // Stock changed outside the entities; refresh the scan index once the transaction commits
+        for (int from = 0; from < adjustedBarcodes.size(); from += INDEX_BATCH_SIZE) {
+            itemService.indexItemsByBarcode(adjustedBarcodes.subList(from, Math.min(from + INDEX_BATCH_SIZE, adjustedBarcodes.size())));
+        }
+        return convertToDTO(stockTake);
+    }
+
+    public StockTakeDTO cancelStockTake(Long id) {
+        StockTake stockTake = lockStockTake(id);
+        requireOpen(stockTake);
+        stockTake.setStatus(StockTakeStatus.CANCELLED);
+        stockTake.setClosedAt(LocalDateTime.now());
+        return convertToDTO(stockTakeRepository.save(stockTake));
+    }
+
+    private StockTake findStockTake(Long id) {
+        return stockTakeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Stock take not found with ID: " + id));
+    }
+
+    // Locks the stock take row, so uploads, applying and cancelling the same stock take run one at a time
+    private StockTake lockStockTake(Long id) {
+        return stockTakeRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Stock take not found with ID: " + id));
+    }
+
+    private static void requireOpen(StockTake stockTake) {
+        if (stockTake.getStatus() != StockTakeStatus.OPEN) {
+            throw new IllegalArgumentException("Stock take " + stockTake.getId() + " is " + stockTake.getStatus());
+        }
+    }
+
+    private static String validateCount(String barcode, String quantity) {
+        if (barcode.isEmpty()) {
+            return "Barcode is required";
+        }
+        int value;
+        try {
+            value = Integer.parseInt(quantity);
+        } catch (NumberFormatException e) {
+            return "Invalid quantity: " + quantity;
+        }
+        return value < 0 ? "Quantity cannot be negative" : null;
+    }
+
+    private static void addError(StockCountResultDTO result, long line, String barcode, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ItemImportResultDTO.RowError(line, barcode, message));
+        }
+    }
+
+    private StockTakeDTO convertToDTO(StockTake stockTake) {
+        return new StockTakeDTO(
+                stockTake.getId(),
+                stockTake.getName(),
+                stockTake.getStatus().name(),
+                stockTake.getUserId(),
+                stockTake.getCreatedAt(),
+                stockTake.getClosedAt(),
+                stockTakeRepository.countCounts(stockTake.getId()),
+                stockTake.getAdjustedItems());
+    }
+}
@@ -0,0 +1,109 @@
+package com.picknpay.service;
+
+import com.picknpay.entity.Item;
+import com.picknpay.entity.SaleItem;
+import com.picknpay.util.Money;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * VAT split of VAT-inclusive prices, shared by checkout, sale edits and the catalogue. The ex-VAT price is
+ * price / (1 + rate / 100) rounded half-up to the cent and the VAT is the remainder. Divisors for the Irish
+ * rates are built once; prices in whole cents are split in long arithmetic, which is exact and rounds the
+ * same as the BigDecimal division used for anything else.
+ */
+@Component
+public class VatCalculator {
+
+    // Rate for quick sales and items without a rate of their own
+    public static final BigDecimal STANDARD_RATE = new BigDecimal("23.00");
+
+    private static final int BASIS_POINTS = 10_000;
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    // Largest price in cents whose scaled numerator cannot overflow
+    private static final long MAX_EXACT_CENTS = Long.MAX_VALUE / (4L * BASIS_POINTS);
+
+    private static final Rate[] IRISH_RATES = {
+            new Rate(STANDARD_RATE),
+            new Rate(new BigDecimal("13.50")),
+            new Rate(new BigDecimal("9.00")),
+            new Rate(new BigDecimal("4.80")),
+            new Rate(new BigDecimal("0.00"))
+    };
+
+    // Sets the line's VAT rate, VAT amount and ex-VAT total from its VAT-inclusive total; item is null for
+    // quick sales. A line priced at the item's shelf price reuses the split cached on the item
+    public void applyToLine(SaleItem line, Item item) {
+        BigDecimal vatRate = item != null && item.getVatRate() != null ? item.getVatRate() : STANDARD_RATE;
+        BigDecimal total = line.getTotalPrice();
+        line.setVatRate(vatRate);
+        if (item != null && item.getUnitPriceExcludingVat() != null && item.getUnitVatAmount() != null
+                && total.compareTo(item.getPrice()) == 0) {
+            line.setPriceExcludingVat(item.getUnitPriceExcludingVat());
+            line.setVatAmount(item.getUnitVatAmount());
+            return;
+        }
+        BigDecimal excludingVat = priceExcludingVat(total, vatRate);
+        line.setPriceExcludingVat(excludingVat);
+        line.setVatAmount(total.subtract(excludingVat));
+    }
+
+    // Caches the VAT split of the item's shelf price on the item; call whenever its price or rate is set.
+    // SQL that writes items.price or items.vat_rate directly (the import upsert, migrations) must refresh
+    // the cached columns too, since applyToLine trusts them for lines sold at the shelf price
+    public void cacheUnitVat(Item item) {
+        if (item.getPrice() == null) {
+            item.setUnitPriceExcludingVat(null);
+            item.setUnitVatAmount(null);
+            return;
+        }
+        BigDecimal vatRate = item.getVatRate() != null ? item.getVatRate() : STANDARD_RATE;
+        BigDecimal excludingVat = priceExcludingVat(item.getPrice(), vatRate);
+        item.setUnitPriceExcludingVat(excludingVat);
+        item.setUnitVatAmount(item.getPrice().subtract(excludingVat));
+    }
+
+    public BigDecimal priceExcludingVat(BigDecimal priceIncludingVat, BigDecimal vatRate) {
+        Rate rate = rateOf(vatRate);
+        if (rate != null && priceIncludingVat.signum() > 0 && priceIncludingVat.scale() <= 2) {
+            long cents = Money.toCents(priceIncludingVat);
+            if (cents <= MAX_EXACT_CENTS) {
+                // cents * 10000 / (10000 + basis points), rounded half-up
+                long numerator = cents * BASIS_POINTS;
+                return Money.fromCents((2 * numerator + rate.divisorBasisPoints) / (2L * rate.divisorBasisPoints));
+            }
+        }
+        BigDecimal divisor = rate != null ? rate.divisor : BigDecimal.ONE.add(vatRate.divide(HUNDRED));
+        return priceIncludingVat.divide(divisor, 2, RoundingMode.HALF_UP);
+    }
+
+    // The precomputed rate, built on the spot for rates outside the Irish set, or null when the rate
+    // is not a whole number of basis points between 0 and 100%
+    private static Rate rateOf(BigDecimal vatRate) {
+        if (vatRate.signum() < 0 || vatRate.scale() > 2 || vatRate.compareTo(HUNDRED) > 0) {
+            return null;
+        }
+        long basisPoints = Money.toCents(vatRate);
+        for (Rate rate : IRISH_RATES) {
+            if (rate.basisPoints == basisPoints) {
+                return rate;
+            }
+        }
+        return new Rate(vatRate);
+    }
+
+    private static final class Rate {
+
+        private final long basisPoints;
+        private final long divisorBasisPoints;
+        private final BigDecimal divisor;
+
+        private Rate(BigDecimal vatRate) {
+            this.basisPoints = Money.toCents(vatRate);
+            this.divisorBasisPoints = BASIS_POINTS + basisPoints;
+            this.divisor = BigDecimal.ONE.add(vatRate.divide(HUNDRED));
+        }
+    }
+}
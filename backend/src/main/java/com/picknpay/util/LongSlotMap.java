@@ -0,0 +1,85 @@
+package com.picknpay.util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to dense slots 0, 1, 2, ... in insertion order, so values can be kept in
+ * primitive arrays indexed by slot. Open addressing with linear probing; nothing is boxed or allocated
+ * per lookup. Long.MIN_VALUE cannot be used as a key.
+ */
+public class LongSlotMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] table;
+    private int[] slots;
+    private long[] keysBySlot;
+    private int size;
+
+    public LongSlotMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        slots = new int[capacity];
+        keysBySlot = new long[Math.max(expectedSize, 4)];
+    }
+
+    // Slot of the key, assigning it the next slot if it is new
+    public int slotOf(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key not supported: " + key);
+        }
+        int mask = table.length - 1;
+        int index = mix(key) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == key) {
+                return slots[index];
+            }
+            index = (index + 1) & mask;
+        }
+
+        int slot = size++;
+        table[index] = key;
+        slots[index] = slot;
+        if (slot == keysBySlot.length) {
+            keysBySlot = Arrays.copyOf(keysBySlot, slot * 2);
+        }
+        keysBySlot[slot] = key;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return slot;
+    }
+
+    public long keyAt(int slot) {
+        return keysBySlot[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldTable = table;
+        int[] oldSlots = slots;
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] != EMPTY) {
+                int index = mix(oldTable[i]) & mask;
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = oldTable[i];
+                slots[index] = oldSlots[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
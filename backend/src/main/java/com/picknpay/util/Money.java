@@ -0,0 +1,33 @@
+package com.picknpay.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between BigDecimal amounts and whole hundredths held in a long: cents for money,
+ * basis points for VAT rates. Report aggregation adds in longs and only converts at its edges.
+ */
+public final class Money {
+
+    // Values with at most this many integer digits and two decimals are below 2^50 hundredths
+    private static final int MAX_FAST_INTEGER_DIGITS = 13;
+
+    private Money() {}
+
+    // The amount in hundredths, rounded half-up beyond two decimals; null counts as zero
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        if (amount.scale() >= 0 && amount.scale() <= 2 && amount.precision() - amount.scale() <= MAX_FAST_INTEGER_DIGITS) {
+            // BigDecimal.doubleValue() of such a value is one correctly rounded division and allocates
+            // nothing; below 2^50 hundredths, scaling it back and rounding gives the exact count
+            return Math.round(amount.doubleValue() * 100);
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.picknpay;
+
+import com.picknpay.dto.SaleDTO;
+import com.picknpay.dto.SaleItemDTO;
+import com.picknpay.entity.Category;
+import com.picknpay.entity.Item;
+import com.picknpay.entity.PaymentMethod;
+import com.picknpay.repository.CategoryRepository;
+import com.picknpay.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Base for tests that run the application against a real PostgreSQL. The database is created from
+ * database-setup.sql, the same script used for new installs, in one container shared by all test
+ * classes so the cached Spring context keeps pointing at it. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    // The setup script connects to picknpay_inventory itself, so it runs through psql in the container's
+    // init directory rather than as a JDBC init script
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("picknpay_inventory")
+            .withCopyFileToContainer(MountableFile.forHostPath("../database-setup.sql"),
+                    "/docker-entrypoint-initdb.d/database-setup.sql");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @Autowired
+    protected ItemRepository itemRepository;
+
+    // Names and barcodes are unique per call, since the database is shared by every test
+    protected Category createCategory(String name) {
+        return categoryRepository.save(new Category(name + " " + UUID.randomUUID(), null));
+    }
+
+    protected Item createItem(String name, String price, int stockQuantity, Category category) {
+        Item item = new Item(name, null, new BigDecimal(price), stockQuantity, UUID.randomUUID().toString());
+        item.setCategory(category);
+        return itemRepository.save(item);
+    }
+
+    protected static SaleItemDTO line(Item item, int quantity) {
+        return new SaleItemDTO(item.getId(), quantity, item.getPrice());
+    }
+
+    protected static SaleDTO cashSale(SaleItemDTO... lines) {
+        BigDecimal total = Arrays.stream(lines)
+                .map(SaleItemDTO::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new SaleDTO(total, PaymentMethod.CASH, Arrays.asList(lines));
+    }
+}
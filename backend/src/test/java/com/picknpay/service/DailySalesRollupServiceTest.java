@@ -0,0 +1,88 @@
+package com.picknpay.service;
+
+import com.picknpay.PostgresIntegrationTest;
+import com.picknpay.dto.SaleDTO;
+import com.picknpay.dto.SaleItemDTO;
+import com.picknpay.entity.Category;
+import com.picknpay.entity.DailySalesRollup;
+import com.picknpay.entity.Item;
+import com.picknpay.repository.DailySalesRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailySalesRollupServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
+    @Test
+    void editAfterCategoryChangeTakesTheLineOffTheCategoryItWasSoldUnder() {
+        Category dairy = createCategory("Dairy");
+        Category bakery = createCategory("Bakery");
+        Item milk = createItem("Milk", "2.00", 10, dairy);
+        SaleDTO sale = saleService.createSale(cashSale(line(milk, 2)));
+
+        moveToCategory(milk, bakery);
+        SaleItemDTO editedLine = sale.getSaleItems().get(0);
+        editedLine.setQuantity(3);
+        sale.setTotalAmount(editedLine.getTotalPrice());
+        saleService.updateSale(sale.getId(), sale);
+
+        assertThat(rollupRows(dairy)).isEmpty();
+        List<DailySalesRollup> bakeryRows = rollupRows(bakery);
+        assertThat(bakeryRows).hasSize(1);
+        assertThat(bakeryRows.get(0).getSaleCount()).isEqualTo(1L);
+        assertThat(bakeryRows.get(0).getQuantity()).isEqualTo(3L);
+        assertThat(bakeryRows.get(0).getGrossAmount()).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void unchangedLineStaysUnderItsCategoryWhenTheItemMoves() {
+        Category dairy = createCategory("Dairy");
+        Category bakery = createCategory("Bakery");
+        Item milk = createItem("Milk", "2.00", 10, dairy);
+        SaleDTO sale = saleService.createSale(cashSale(line(milk, 2)));
+
+        moveToCategory(milk, bakery);
+        sale.setNotes("Receipt reprinted");
+        saleService.updateSale(sale.getId(), sale);
+
+        assertThat(rollupRows(bakery)).isEmpty();
+        List<DailySalesRollup> dairyRows = rollupRows(dairy);
+        assertThat(dairyRows).hasSize(1);
+        assertThat(dairyRows.get(0).getSaleCount()).isEqualTo(1L);
+        assertThat(dairyRows.get(0).getQuantity()).isEqualTo(2L);
+        assertThat(dairyRows.get(0).getGrossAmount()).isEqualByComparingTo("4.00");
+    }
+
+    @Test
+    void deletingASaleAfterItsItemIsDeletedEmptiesTheRowItWasAddedTo() {
+        Category dairy = createCategory("Dairy");
+        Item milk = createItem("Milk", "2.00", 10, dairy);
+        SaleDTO sale = saleService.createSale(cashSale(line(milk, 2)));
+
+        itemRepository.deleteById(milk.getId());
+        saleService.deleteSale(sale.getId());
+
+        assertThat(rollupRows(dairy)).isEmpty();
+    }
+
+    private void moveToCategory(Item item, Category category) {
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+        stored.setCategory(category);
+        itemRepository.save(stored);
+    }
+
+    private List<DailySalesRollup> rollupRows(Category category) {
+        return dailySalesRollupRepository.findAll().stream()
+                .filter(row -> category.getId().equals(row.getCategoryId()))
+                .toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.picknpay.service;
+
+import com.picknpay.PostgresIntegrationTest;
+import com.picknpay.config.QueryCountingDataSource;
+import com.picknpay.dto.SaleItemDTO;
+import com.picknpay.entity.Category;
+import com.picknpay.entity.Item;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements and latency of a checkout per basket size against a real PostgreSQL, for the batched
+ * createSale and for the per-line statements checkout issued before it: a select and a stock update
+ * for every line, and the sale and each of its lines inserted one at a time. The per-line path is
+ * replayed over JDBC, as createSale no longer has it. Prints p50 and p99 per basket size; only the
+ * statement counts are asserted, since timings depend on the machine. Run it on its own with
+ *
+ *   mvn test -Dtest=SaleCheckoutLatencyTest -Dcheckout.latency=true
+ */
+@EnabledIfSystemProperty(named = "checkout.latency", matches = "true")
+class SaleCheckoutLatencyTest extends PostgresIntegrationTest {
+
+    private static final int[] BASKET_SIZES = {1, 10, 40};
+    private static final int WARMUP_SALES = 20;
+    private static final int MEASURED_SALES = 200;
+
+    private static final String INSERT_SALE_SQL =
+            "INSERT INTO sales (total_amount, sale_date, payment_method) VALUES (?, ?, 'CASH') RETURNING id";
+
+    private static final String SELECT_ITEM_SQL =
+            "SELECT name, barcode, price, stock_quantity FROM items WHERE id = ?";
+
+    private static final String UPDATE_STOCK_SQL =
+            "UPDATE items SET stock_quantity = ?, updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_LINE_SQL =
+            "INSERT INTO sale_items (sale_id, item_id, item_name, item_barcode, quantity, unit_price, total_price) " +
+            "VALUES (?, ?, ?, ?, 1, ?, ?)";
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void statementsAndLatencyPerBasketSize() {
+        Category category = createCategory("Groceries");
+        System.out.printf("%-8s %-10s %10s %10s %10s%n", "lines", "checkout", "statements", "p50 ms", "p99 ms");
+
+        for (int size : BASKET_SIZES) {
+            List<Item> basket = basket(category, size);
+            SaleItemDTO[] lines = basket.stream().map(item -> line(item, 1)).toArray(SaleItemDTO[]::new);
+
+            Result batched = measure(() -> saleService.createSale(cashSale(lines)));
+            Result perLine = measure(() -> perLineCheckout(basket));
+            batched.print(size, "batched");
+            perLine.print(size, "per-line");
+
+            // The batched checkout's statements do not depend on the basket; the per-line one issues three per line
+            assertThat(batched.statements()).isLessThanOrEqualTo(6);
+            assertThat(perLine.statements()).isEqualTo(3 * size + 1);
+        }
+    }
+
+    // The statements createSale issued before checkout was batched, inside one transaction
+    private void perLineCheckout(List<Item> basket) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            BigDecimal total = basket.stream().map(Item::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+            Long saleId = jdbcTemplate.queryForObject(INSERT_SALE_SQL, Long.class, total, now);
+
+            for (Item item : basket) {
+                Map<String, Object> row = jdbcTemplate.queryForMap(SELECT_ITEM_SQL, item.getId());
+                int stockQuantity = ((Number) row.get("stock_quantity")).intValue();
+                jdbcTemplate.update(UPDATE_STOCK_SQL, stockQuantity - 1, now, item.getId());
+                jdbcTemplate.update(INSERT_LINE_SQL, saleId, item.getId(), row.get("name"), row.get("barcode"),
+                        row.get("price"), row.get("price"));
+            }
+        });
+    }
+
+    private Result measure(Runnable checkout) {
+        for (int i = 0; i < WARMUP_SALES; i++) {
+            checkout.run();
+        }
+
+        long[] nanos = new long[MEASURED_SALES];
+        int statements = 0;
+        for (int i = 0; i < MEASURED_SALES; i++) {
+            QueryCountingDataSource.reset();
+            long start = System.nanoTime();
+            checkout.run();
+            nanos[i] = System.nanoTime() - start;
+            statements = Math.max(statements, QueryCountingDataSource.count());
+        }
+        Arrays.sort(nanos);
+        return new Result(statements, nanos);
+    }
+
+    // One line for each of the given number of distinct items, stocked for every measured sale
+    private List<Item> basket(Category category, int lines) {
+        List<Item> basket = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            basket.add(createItem("Item " + i, "1.25", 1_000_000, category));
+        }
+        return basket;
+    }
+
+    private record Result(int statements, long[] sortedNanos) {
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        void print(int lines, String checkout) {
+            System.out.printf("%-8d %-10s %10d %10.2f %10.2f%n",
+                    lines, checkout, statements, percentileMillis(50), percentileMillis(99));
+        }
+    }
+}
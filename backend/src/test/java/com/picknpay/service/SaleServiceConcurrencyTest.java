@@ -0,0 +1,83 @@
+package com.picknpay.service;
+
+import com.picknpay.PostgresIntegrationTest;
+import com.picknpay.entity.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Tills racing for the last units of an item: the conditional stock decrement must let exactly as many
+// sales through as there is stock for, whatever the pre-check in createSale read
+class SaleServiceConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int TILLS = 16;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Test
+    void concurrentSalesNeverOversellTheLastUnits() throws Exception {
+        Item item = createItem("Last units", "1.50", 5, createCategory("Clearance"));
+
+        List<Boolean> results = raceSales(item, 1);
+
+        assertThat(results.stream().filter(Boolean::booleanValue).count()).isEqualTo(5);
+        assertThat(stockOf(item)).isZero();
+    }
+
+    @Test
+    void concurrentMultiUnitSalesOnlyTakeWholeBaskets() throws Exception {
+        Item item = createItem("Last units", "1.50", 7, createCategory("Clearance"));
+
+        List<Boolean> results = raceSales(item, 2);
+
+        assertThat(results.stream().filter(Boolean::booleanValue).count()).isEqualTo(3);
+        assertThat(stockOf(item)).isEqualTo(1);
+    }
+
+    // Rings up one sale of the given quantity from every till at once; true for each sale that went through
+    private List<Boolean> raceSales(Item item, int quantity) throws Exception {
+        ExecutorService tills = Executors.newFixedThreadPool(TILLS);
+        CountDownLatch ready = new CountDownLatch(TILLS);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>(TILLS);
+            for (int i = 0; i < TILLS; i++) {
+                futures.add(tills.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    try {
+                        saleService.createSale(cashSale(line(item, quantity)));
+                        return true;
+                    } catch (RuntimeException e) {
+                        assertThat(e).hasMessageStartingWith("Insufficient stock for item");
+                        return false;
+                    }
+                }));
+            }
+            ready.await();
+            go.countDown();
+
+            List<Boolean> results = new ArrayList<>(TILLS);
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            tills.shutdownNow();
+        }
+    }
+
+    private int stockOf(Item item) {
+        return itemRepository.findById(item.getId()).orElseThrow().getStockQuantity();
+    }
+}
@@ -0,0 +1,47 @@
+package com.picknpay.service;
+
+import com.picknpay.PostgresIntegrationTest;
+import com.picknpay.dto.SaleBatchResultDTO;
+import com.picknpay.dto.SaleDTO;
+import com.picknpay.entity.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SaleServiceCreateSalesTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Test
+    void invalidSalesFailWithoutHoldingBackTheRest() {
+        Item milk = createItem("Milk", "2.00", 10, createCategory("Dairy"));
+        SaleDTO first = offlineSale(milk, 1);
+        SaleDTO withoutPaymentMethod = offlineSale(milk, 1);
+        withoutPaymentMethod.setPaymentMethod(null);
+        SaleDTO withoutLines = offlineSale(milk, 1);
+        withoutLines.setSaleItems(List.of());
+        SaleDTO last = offlineSale(milk, 2);
+
+        List<SaleBatchResultDTO> results = saleService.createSales(Arrays.asList(first, withoutPaymentMethod, withoutLines, null, last));
+
+        assertThat(results).extracting(SaleBatchResultDTO::getStatus).containsExactly(
+                SaleBatchResultDTO.CREATED, SaleBatchResultDTO.FAILED, SaleBatchResultDTO.FAILED,
+                SaleBatchResultDTO.FAILED, SaleBatchResultDTO.CREATED);
+        assertThat(results.get(1).getClientSaleId()).isEqualTo(withoutPaymentMethod.getClientSaleId());
+        assertThat(results.get(1).getError()).contains("paymentMethod");
+        assertThat(results.get(2).getError()).contains("saleItems");
+        assertThat(itemRepository.findById(milk.getId()).orElseThrow().getStockQuantity()).isEqualTo(7);
+    }
+
+    private static SaleDTO offlineSale(Item item, int quantity) {
+        SaleDTO sale = cashSale(line(item, quantity));
+        sale.setClientSaleId(UUID.randomUUID());
+        return sale;
+    }
+}
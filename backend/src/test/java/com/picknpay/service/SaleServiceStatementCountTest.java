@@ -0,0 +1,49 @@
+package com.picknpay.service;
+
+import com.picknpay.PostgresIntegrationTest;
+import com.picknpay.config.QueryCountingDataSource;
+import com.picknpay.dto.SaleItemDTO;
+import com.picknpay.entity.Category;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Checkout loads the basket's items with one query and writes its lines as one batch, so the number of
+// statements per sale must not grow with the number of lines
+class SaleServiceStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Test
+    void statementsPerCheckoutDoNotGrowWithBasketSize() {
+        Category category = createCategory("Groceries");
+        // Warm up, so neither measured sale includes first-use lookups
+        statementsForSale(basket(category, 1));
+
+        int twoLines = statementsForSale(basket(category, 2));
+        int fortyLines = statementsForSale(basket(category, 40));
+
+        // One extra statement is allowed for fetching the next block of 50 sale_items ids
+        assertThat(fortyLines).isLessThanOrEqualTo(twoLines + 1);
+        // Item select, stock decrement batch, sale insert, line insert batch, rollup upsert batch and
+        // possibly a sequence fetch
+        assertThat(fortyLines).isLessThanOrEqualTo(6);
+    }
+
+    private int statementsForSale(SaleItemDTO[] lines) {
+        QueryCountingDataSource.reset();
+        saleService.createSale(cashSale(lines));
+        return QueryCountingDataSource.count();
+    }
+
+    // One line for each of the given number of distinct items
+    private SaleItemDTO[] basket(Category category, int lines) {
+        SaleItemDTO[] basket = new SaleItemDTO[lines];
+        for (int i = 0; i < lines; i++) {
+            basket[i] = line(createItem("Item " + i, "1.25", 100, category), 1);
+        }
+        return basket;
+    }
+}
@@ -0,0 +1,107 @@
+package com.picknpay.service;
+
+import com.picknpay.PostgresIntegrationTest;
+import com.picknpay.dto.SaleDTO;
+import com.picknpay.dto.SaleItemDTO;
+import com.picknpay.entity.Category;
+import com.picknpay.entity.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SaleServiceUpdateSaleTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    private Item milk;
+    private Item bread;
+
+    @BeforeEach
+    void createItems() {
+        Category category = createCategory("Groceries");
+        milk = createItem("Milk", "2.00", 10, category);
+        bread = createItem("Bread", "3.50", 10, category);
+    }
+
+    @Test
+    void unchangedLinesAreKept() {
+        SaleDTO sale = saleService.createSale(cashSale(line(milk, 2), line(bread, 1)));
+        List<Long> lineIds = lineIds(sale);
+
+        SaleDTO updated = saleService.updateSale(sale.getId(), sale);
+
+        assertThat(lineIds(updated)).containsExactlyInAnyOrderElementsOf(lineIds);
+        assertThat(stockOf(milk)).isEqualTo(8);
+        assertThat(stockOf(bread)).isEqualTo(9);
+    }
+
+    @Test
+    void changedQuantitiesMoveStockByTheDifference() {
+        SaleDTO sale = saleService.createSale(cashSale(line(milk, 2)));
+
+        sale.getSaleItems().get(0).setQuantity(5);
+        SaleDTO updated = saleService.updateSale(sale.getId(), sale);
+        assertThat(stockOf(milk)).isEqualTo(5);
+
+        updated.getSaleItems().get(0).setQuantity(1);
+        updated = saleService.updateSale(sale.getId(), updated);
+        assertThat(stockOf(milk)).isEqualTo(9);
+        assertThat(lineIds(updated)).isEqualTo(lineIds(sale));
+        assertThat(updated.getTotalAmount()).isEqualByComparingTo("2.00");
+    }
+
+    @Test
+    void removedLinesReturnTheirStock() {
+        SaleDTO sale = saleService.createSale(cashSale(line(milk, 2), line(bread, 3)));
+
+        sale.getSaleItems().removeIf(saleItem -> saleItem.getItemId().equals(bread.getId()));
+        SaleDTO updated = saleService.updateSale(sale.getId(), sale);
+
+        assertThat(updated.getSaleItems()).hasSize(1);
+        assertThat(updated.getTotalAmount()).isEqualByComparingTo("4.00");
+        assertThat(stockOf(milk)).isEqualTo(8);
+        assertThat(stockOf(bread)).isEqualTo(10);
+    }
+
+    @Test
+    void deletedSaleReturnsItsStock() {
+        SaleDTO sale = saleService.createSale(cashSale(line(milk, 2), line(bread, 3), line(milk, 1)));
+
+        saleService.deleteSale(sale.getId());
+
+        assertThat(stockOf(milk)).isEqualTo(10);
+        assertThat(stockOf(bread)).isEqualTo(10);
+    }
+
+    @Test
+    void lineSentWithoutAPriceIsSoldAtTheShelfPrice() {
+        SaleDTO sale = saleService.createSale(cashSale(line(milk, 2)));
+
+        SaleItemDTO unpriced = new SaleItemDTO();
+        unpriced.setItemId(bread.getId());
+        unpriced.setQuantity(2);
+        sale.getSaleItems().add(unpriced);
+        SaleDTO updated = saleService.updateSale(sale.getId(), sale);
+
+        SaleItemDTO breadLine = updated.getSaleItems().stream()
+                .filter(saleItem -> saleItem.getItemId().equals(bread.getId()))
+                .findFirst().orElseThrow();
+        assertThat(breadLine.getUnitPrice()).isEqualByComparingTo("3.50");
+        assertThat(breadLine.getTotalPrice()).isEqualByComparingTo("7.00");
+        assertThat(updated.getTotalAmount()).isEqualByComparingTo("11.00");
+        assertThat(stockOf(bread)).isEqualTo(8);
+    }
+
+    private static List<Long> lineIds(SaleDTO sale) {
+        return sale.getSaleItems().stream().map(SaleItemDTO::getId).toList();
+    }
+
+    private int stockOf(Item item) {
+        return itemRepository.findById(item.getId()).orElseThrow().getStockQuantity();
+    }
+}
@@ -31,6 +31,12 @@ WHERE NOT EXISTS (SELECT FROM pg_database WHERE datname = 'picknpay_inventory')\
 -- ============================================
 
 -- Drop tables in reverse dependency order to avoid foreign key constraints
+DROP TABLE IF EXISTS report_jobs CASCADE;
+DROP TABLE IF EXISTS daily_sales_rollup CASCADE;
+DROP TABLE IF EXISTS item_tombstones CASCADE;
+DROP TABLE IF EXISTS stock_adjustments CASCADE;
+DROP TABLE IF EXISTS stock_take_counts CASCADE;
+DROP TABLE IF EXISTS stock_takes CASCADE;
 DROP TABLE IF EXISTS sale_items CASCADE;
 DROP TABLE IF EXISTS sales CASCADE;
 DROP TABLE IF EXISTS attendances CASCADE;
@@ -92,6 +98,8 @@ CREATE TABLE items (
     stock_quantity INTEGER NOT NULL DEFAULT 0,
     barcode VARCHAR(255) UNIQUE, -- Can be NULL for items without barcode
     vat_rate DECIMAL(5,2) NOT NULL DEFAULT 23.00, -- VAT rate (inherited from category or set manually)
+    unit_price_excluding_vat DECIMAL(10,2), -- VAT split of the price, cached when the item is saved
+    unit_vat_amount DECIMAL(10,2),
     batch_id VARCHAR(255), -- Can be NULL for items without batch tracking
     general_expiry_date DATE, -- Can be NULL for non-perishable items (general expiry)
     category_id BIGINT REFERENCES categories(id) ON DELETE SET NULL,
@@ -127,8 +135,10 @@ CREATE TABLE sales (
     user_id BIGINT REFERENCES users(id) ON DELETE SET NULL, -- Can be NULL to preserve sales history when user is deleted
     notes VARCHAR(1000), -- Optional notes for the sale
     selected_vat_rate DECIMAL(5,2), -- Selected VAT rate (for backward compatibility)
+    client_sale_id UUID, -- Generated by the till; a retried submission returns the sale already recorded
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_sales_client_sale_id UNIQUE (client_sale_id)
 );
 
 -- Create sale_items table
@@ -142,6 +152,7 @@ CREATE TABLE sale_items (
     unit_price DECIMAL(10,2) NOT NULL CHECK (unit_price > 0),
     total_price DECIMAL(10,2) NOT NULL CHECK (total_price > 0),
     batch_id VARCHAR(255), -- Can be NULL
+    category_id BIGINT, -- Category of the item when sold; NULL for quick sales and uncategorised items
     vat_rate DECIMAL(5,2) NOT NULL DEFAULT 23.00, -- VAT rate is always calculated
     vat_amount DECIMAL(10,2) NOT NULL DEFAULT 0, -- VAT amount is always calculated
     price_excluding_vat DECIMAL(10,2) NOT NULL DEFAULT 0, -- Price excluding VAT is always calculated
@@ -149,6 +160,9 @@ CREATE TABLE sale_items (
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- The application allocates sale_items ids 50 at a time so checkout can batch its inserts
+ALTER SEQUENCE sale_items_id_seq INCREMENT BY 50;
+
 -- Create sale_payments table for split payment support
 CREATE TABLE sale_payments (
     id BIGSERIAL PRIMARY KEY,
@@ -166,6 +180,78 @@ CREATE INDEX idx_sale_payments_payment_method ON sale_payments(payment_method);
 -- Create trigger for sale_payments updated_at
 CREATE TRIGGER update_sale_payments_updated_at BEFORE UPDATE ON sale_payments FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 
+-- Create daily_sales_rollup table: sales pre-aggregated per day, user, payment method, VAT rate and category
+-- Daily reports sum these rows instead of scanning sales; user_id/category_id use 0 for none
+CREATE TABLE daily_sales_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    payment_method VARCHAR(10) NOT NULL,
+    vat_rate DECIMAL(5,2) NOT NULL,
+    category_id BIGINT NOT NULL,
+    sale_count BIGINT NOT NULL DEFAULT 0,
+    split_cash_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    split_card_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    gross_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    vat_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    net_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_daily_sales_rollup_key UNIQUE (rollup_date, user_id, payment_method, vat_rate, category_id)
+);
+
+-- Create item_tombstones table: ids of deleted items, so tills syncing the catalogue
+-- incrementally (GET /api/items/changes) drop them; pruned after 30 days
+CREATE TABLE item_tombstones (
+    item_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+-- Create stock take tables: counts are staged by barcode with the item's stock when counted
+-- (system_quantity); applying a stock take adjusts stock in one pass and logs it in stock_adjustments
+CREATE TABLE stock_takes (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'OPEN' CHECK (status IN ('OPEN', 'APPLIED', 'CANCELLED')),
+    user_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    closed_at TIMESTAMP,
+    adjusted_items INTEGER
+);
+
+CREATE TABLE stock_take_counts (
+    id BIGSERIAL PRIMARY KEY,
+    stock_take_id BIGINT NOT NULL REFERENCES stock_takes(id) ON DELETE CASCADE,
+    barcode VARCHAR(255) NOT NULL,
+    counted_quantity INTEGER NOT NULL,
+    system_quantity INTEGER, -- NULL when no item has the barcode
+    counted_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_stock_take_counts_barcode UNIQUE (stock_take_id, barcode)
+);
+
+CREATE TABLE stock_adjustments (
+    id BIGSERIAL PRIMARY KEY,
+    stock_take_id BIGINT REFERENCES stock_takes(id) ON DELETE SET NULL,
+    item_id BIGINT NOT NULL,
+    adjustment INTEGER NOT NULL,
+    new_quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Create report_jobs table: daily reports over date ranges computed in the background (POST /api/reports),
+-- with the finished report as JSON; STALE once a sale in the range changes
+CREATE TABLE report_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(10) NOT NULL DEFAULT 'QUEUED' CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED', 'STALE')),
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    user_id BIGINT, -- NULL for reports over all users
+    requested_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    error VARCHAR(500),
+    result TEXT
+);
+
 -- Create attendances table
 -- Note: Allows one record per user per day (first time-in, last time-out)
 CREATE TABLE attendances (
@@ -193,6 +279,26 @@ CREATE INDEX idx_users_role ON users(role);
 CREATE INDEX idx_items_name ON items(name);
 CREATE INDEX idx_items_barcode ON items(barcode);
 CREATE INDEX idx_items_category_id ON items(category_id);
+CREATE INDEX idx_items_updated_at ON items(updated_at);
+
+-- Item tombstones index (catalogue delta sync)
+CREATE INDEX idx_item_tombstones_deleted_at ON item_tombstones(deleted_at);
+
+-- Stock adjustments indexes
+CREATE INDEX idx_stock_adjustments_stock_take_id ON stock_adjustments(stock_take_id);
+CREATE INDEX idx_stock_adjustments_item_id ON stock_adjustments(item_id);
+
+-- Report jobs indexes
+CREATE INDEX idx_report_jobs_range ON report_jobs(start_date, end_date);
+CREATE INDEX idx_report_jobs_requested_at ON report_jobs(requested_at);
+
+-- Item search: trigram indexes for substring matches, pattern indexes for short prefix matches
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_items_name_trgm ON items USING gin (name gin_trgm_ops);
+CREATE INDEX idx_items_barcode_trgm ON items USING gin (barcode gin_trgm_ops);
+CREATE INDEX idx_items_description_trgm ON items USING gin (description gin_trgm_ops);
+CREATE INDEX idx_items_name_lower_prefix ON items (lower(name) text_pattern_ops);
+CREATE INDEX idx_items_barcode_prefix ON items (barcode text_pattern_ops);
 
 -- Batches indexes
 CREATE INDEX idx_batches_product_id ON batches(product_id);
@@ -203,11 +309,15 @@ CREATE INDEX idx_batches_batch_id ON batches(batch_id);
 CREATE INDEX idx_sales_date ON sales(sale_date);
 CREATE INDEX idx_sales_user_id ON sales(user_id);
 CREATE INDEX idx_sales_payment_method ON sales(payment_method);
+CREATE INDEX idx_sales_user_date ON sales(user_id, sale_date); -- Per-user report aggregates
 
 -- Sale items indexes
 CREATE INDEX idx_sale_items_sale_id ON sale_items(sale_id);
 CREATE INDEX idx_sale_items_item_id ON sale_items(item_id);
 
+-- Daily sales rollup indexes (admin reports use the unique key, which leads with rollup_date)
+CREATE INDEX idx_daily_sales_rollup_user_date ON daily_sales_rollup(user_id, rollup_date);
+
 -- Attendances indexes
 CREATE INDEX idx_attendances_user_id ON attendances(user_id);
 CREATE INDEX idx_attendances_date ON attendances(attendance_date);
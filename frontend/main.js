@@ -74,7 +74,9 @@ function startBackend() {
   console.log("👉 Launching backend from:", jarPath);
   console.log("📂 JAR exists?", fs.existsSync(jarPath));
 
-  backendProcess = spawn('java', ['-Xmx512m', '-jar', jarPath], {
+  // Keep the sale journal in the user data folder; the install folder may be read-only
+  const saleJournalDir = path.join(app.getPath('userData'), 'sale-journal');
+  backendProcess = spawn('java', ['-Xmx512m', '-jar', jarPath, `--sales.journal.dir=${saleJournalDir}`], {
     cwd: path.dirname(jarPath),
     detached: false,
     stdio: ['ignore', 'pipe', 'pipe'], // ✅ capture logs (prevents Windows freeze)
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { companySettingsAPI } from '../services/api';
+import { companySettingsAPI, displayAPI } from '../services/api';
 
 const CustomerDisplay = () => {
   const [total, setTotal] = useState(0);
@@ -51,13 +51,27 @@ const CustomerDisplay = () => {
     }
   };
   
-  // Refresh company name periodically in case it changes
+  // Follow settings changes, and the cart of the till named in ?till=, pushed by the backend.
+  // EventSource reconnects on its own, and the backend replays the latest cart on reconnect
   useEffect(() => {
-    const interval = setInterval(() => {
-      fetchCompanyName();
-    }, 5000); // Refresh every 5 seconds
-    
-    return () => clearInterval(interval);
+    if (typeof EventSource === 'undefined') return;
+    const tillId = new URLSearchParams(window.location.search).get('till');
+    const source = new EventSource(displayAPI.eventsUrl(tillId));
+
+    source.addEventListener('settings', (event) => {
+      const settingsData = JSON.parse(event.data);
+      if (settingsData && settingsData.companyName) {
+        setCompanyName(settingsData.companyName);
+      }
+    });
+    if (tillId) {
+      source.addEventListener('cart', (event) => {
+        const cartData = JSON.parse(event.data);
+        setTotal((cartData && cartData.total) || 0);
+      });
+    }
+
+    return () => source.close();
   }, []);
 
   return (
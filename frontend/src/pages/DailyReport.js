@@ -1,7 +1,7 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { Container, Table, Button, Form, Row, Col, Alert, Spinner, Card } from 'react-bootstrap';
 import { useNavigate } from 'react-router-dom';
-import { salesAPI, usersAPI, companySettingsAPI } from '../services/api';
+import { salesAPI, usersAPI, companySettingsAPI, reportsAPI } from '../services/api';
 import { useAuth } from '../contexts/AuthContext';
 import { directPrint, createZReportHTML } from '../utils/printUtils';
 
@@ -70,8 +70,8 @@ const DailyReport = () => {
         // Admin viewing specific user's report
         console.log('Admin viewing specific user report');
         if (isDateRange) {
-          console.log('Calling getDailyReportByUserAndDateRange with:', startDate, endDate, selectedUserId);
-          response = await salesAPI.getDailyReportByUserAndDateRange(startDate, endDate, selectedUserId);
+          console.log('Running report job with:', startDate, endDate, selectedUserId);
+          response = await reportsAPI.run(startDate, endDate, selectedUserId);
         } else {
           console.log('Calling getDailyReportByUser with:', startDate, selectedUserId);
         response = await salesAPI.getDailyReportByUser(startDate, selectedUserId);
@@ -80,8 +80,8 @@ const DailyReport = () => {
         // Admin viewing all users' report
         console.log('Admin viewing all users report');
         if (isDateRange) {
-          console.log('Calling getDailyReportByDateRangeForAdmin with:', startDate, endDate);
-          response = await salesAPI.getDailyReportByDateRangeForAdmin(startDate, endDate);
+          console.log('Running report job with:', startDate, endDate);
+          response = await reportsAPI.run(startDate, endDate);
         } else {
           console.log('Calling getDailyReport with:', startDate);
           response = await salesAPI.getDailyReport(startDate);
@@ -90,8 +90,8 @@ const DailyReport = () => {
         // Regular user sees only their sales
         console.log('Regular user viewing own report');
         if (isDateRange) {
-          console.log('Calling getDailyReportByUserAndDateRange with:', startDate, endDate, user?.id);
-          response = await salesAPI.getDailyReportByUserAndDateRange(startDate, endDate, user?.id);
+          console.log('Running report job with:', startDate, endDate, user?.id);
+          response = await reportsAPI.run(startDate, endDate, user?.id);
         } else {
           console.log('Calling getDailyReportByUser with:', startDate, user?.id);
         response = await salesAPI.getDailyReportByUser(startDate, user?.id);
@@ -16,14 +16,14 @@ import {
 } from 'react-bootstrap';
 import { useForm, Controller } from 'react-hook-form';
 import { useNavigate } from 'react-router-dom';
-import { itemsAPI, salesAPI, categoriesAPI, companySettingsAPI } from '../services/api';
+import { itemsAPI, salesAPI, categoriesAPI, companySettingsAPI, displayAPI, getTillId, newClientSaleId } from '../services/api';
 import { useAuth } from '../contexts/AuthContext';
 import BarcodeScanner from '../components/BarcodeScanner';
 import FullscreenIndicator from '../components/FullscreenIndicator';
 import SimpleBarcodeScanner from '../components/SimpleBarcodeScanner';
 import EditItemDialog from '../components/EditItemDialog';
 import JsBarcode from 'jsbarcode';
-import { directPrint, createReceiptHTML, printReceiptRaw } from '../utils/printUtils';
+import { directPrint, createReceiptHTML, printReceiptRaw, saleReference } from '../utils/printUtils';
 
 const SalesPage = () => {
   const [cart, setCart] = useState([]);
@@ -527,9 +527,22 @@ const SalesPage = () => {
     return isNaN(total) ? 0 : Math.max(0, total);
   };
 
-  // Push cart to main process so the customer display window stays in sync (Electron only).
+  // Id sent with the current cart's sale. Retrying a failed or timed-out checkout reuses it, so the backend
+  // returns the sale it may already have recorded instead of creating a second one; any cart change starts a new sale
+  const clientSaleIdRef = useRef(null);
+  useEffect(() => {
+    clientSaleIdRef.current = null;
+  }, [cart, appliedDiscount]);
+  const currentClientSaleId = () => {
+    if (!clientSaleIdRef.current) {
+      clientSaleIdRef.current = newClientSaleId();
+    }
+    return clientSaleIdRef.current;
+  };
+
+  // Push cart to the customer display: over IPC to the local Electron window, and to the backend
+  // so displays on other machines following this till stay in sync.
   useEffect(() => {
-    if (!window.electron?.ipcRenderer?.send) return;
     const subtotal =
       !cart || cart.length === 0
         ? 0
@@ -549,11 +562,17 @@ const SalesPage = () => {
     const total = isNaN(subtotal - discountAmount)
       ? 0
       : Math.max(0, subtotal - discountAmount);
-    window.electron.ipcRenderer.send('cart-updated', {
+    const cartState = {
       cart,
       subtotal,
       discountAmount,
       total,
+    };
+    if (window.electron?.ipcRenderer?.send) {
+      window.electron.ipcRenderer.send('cart-updated', cartState);
+    }
+    displayAPI.publishCart(getTillId(), cartState).catch((error) => {
+      console.error('Failed to publish cart to customer displays:', error);
     });
   }, [cart, appliedDiscount]);
 
@@ -778,6 +797,7 @@ const SalesPage = () => {
         saleItems: saleItems,
         userId: user?.id || null,
         selectedVatRate: null, // No longer using selectedVatRate - each item has its own VAT
+        clientSaleId: currentClientSaleId(),
         cashAmount: parseFloat(cashAmount || 0),
         changeDue: parseFloat(cashAmount || 0) > 0 ? (parseFloat(cashAmount || 0) - totalAmount) : 0
       };
@@ -871,6 +891,7 @@ const SalesPage = () => {
         saleItems: saleItems,
         userId: user?.id || null,
         selectedVatRate: null, // No longer using selectedVatRate - each item has its own VAT
+        clientSaleId: currentClientSaleId(),
       };
 
       const response = await salesAPI.create(saleData);
@@ -1006,6 +1027,7 @@ const SalesPage = () => {
         saleItems: saleItems,
         userId: user?.id || null,
         selectedVatRate: null, // No longer using selectedVatRate - each item has its own VAT
+        clientSaleId: currentClientSaleId(),
       };
 
       console.log('Sending split payment sale data:', JSON.stringify(saleData, null, 2));
@@ -2231,7 +2253,7 @@ const SalesPage = () => {
                     size="lg" 
                     className="btn-3d"
                     onClick={handlePrintLastSale}
-                    title={`Print last sale #${lastSale.id}`}
+                    title={`Print last sale #${saleReference(lastSale)}`}
                     style={{ fontSize: '1.1rem', padding: '0.6rem 1rem', minHeight: '45px', backgroundColor: '#3a3a3a', color: '#ffffff' }}
                   >
                     <i className="bi bi-printer me-2"></i>
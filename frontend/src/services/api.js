@@ -76,6 +76,44 @@ export const itemsAPI = {
   update: (id, item) => api.put(`/items/${id}`, item),
   delete: (id) => api.delete(`/items/${id}`),
   updateStock: (id, quantityChange) => api.patch(`/items/${id}/stock?quantityChange=${quantityChange}`),
+  // Bulk import of a CSV file; returns inserted/updated/failed counts and the rows that failed
+  importCsv: (file) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    return api.post('/items/import', formData, { headers: { 'Content-Type': 'multipart/form-data' } });
+  },
+};
+
+// Stock take API
+export const stockTakesAPI = {
+  getAll: () => api.get('/stock-takes'),
+  getById: (id) => api.get(`/stock-takes/${id}`),
+  create: (name, userId) => api.post('/stock-takes', null, { params: { name, userId } }),
+  // counts: [{ barcode, quantity }]
+  uploadCounts: (id, counts) => api.post(`/stock-takes/${id}/counts`, counts),
+  getVariances: (id) => api.get(`/stock-takes/${id}/variances`),
+  apply: (id) => api.post(`/stock-takes/${id}/apply`),
+  cancel: (id) => api.post(`/stock-takes/${id}/cancel`),
+};
+
+export const reportsAPI = {
+  getAll: () => api.get('/reports'),
+  getById: (id) => api.get(`/reports/${id}`),
+  // Queue a daily report over a date range; userId omitted for all users
+  create: (startDate, endDate, userId, refresh = false) =>
+    api.post('/reports', null, { params: { startDate, endDate, userId, refresh } }),
+  // Queue the report and poll until it is finished; resolves like a plain report request ({ data: report })
+  run: async (startDate, endDate, userId, pollMs = 1000) => {
+    let job = (await api.post('/reports', null, { params: { startDate, endDate, userId } })).data;
+    while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+      await new Promise((resolve) => setTimeout(resolve, pollMs));
+      job = (await api.get(`/reports/${job.id}`)).data;
+    }
+    if (job.status === 'FAILED') {
+      throw new Error(job.error || 'Report failed');
+    }
+    return { data: job.result };
+  },
 };
 
 // Sales API
@@ -87,6 +125,10 @@ export const salesAPI = {
   getSalesByDateRange: (startDate, endDate) => 
     api.get(`/sales/date-range?startDate=${startDate}&endDate=${endDate}`),
   create: (sale) => api.post('/sales', sale),
+  // Sale lines between two dates (YYYY-MM-DD, inclusive) as a CSV blob
+  exportCsv: (start, end) => api.get('/sales/export.csv', { params: { start, end }, responseType: 'blob' }),
+  // Upload sales queued while offline; returns one result per sale (CREATED, DUPLICATE or FAILED)
+  createBatch: (sales) => api.post('/sales/batch', sales),
   delete: (id) => api.delete(`/sales/${id}`),
   getTotalByDateRange: (startDate, endDate) => 
     api.get(`/sales/total?startDate=${startDate}&endDate=${endDate}`),
@@ -109,12 +151,33 @@ export const salesAPI = {
   delete: (id) => api.delete(`/sales/${id}`),
 };
 
+// Id a till attaches to each sale so a retried submission is not recorded twice
+export const newClientSaleId = () => {
+  if (window.crypto?.randomUUID) {
+    return window.crypto.randomUUID();
+  }
+  return 'xxxxxxxx-xxxx-4xxx-yxxx-xxxxxxxxxxxx'.replace(/[xy]/g, (c) => {
+    const r = (Math.random() * 16) | 0;
+    return (c === 'x' ? r : (r & 0x3) | 0x8).toString(16);
+  });
+};
+
 // Company Settings API
 export const companySettingsAPI = {
   get: () => api.get('/company-settings'),
   update: (settings) => api.put('/company-settings', settings),
 };
 
+// Customer display API (server-sent events)
+// Each till publishes its cart under a till id; a display follows it with /customer-display?till=<id>
+export const getTillId = () => localStorage.getItem('tillId') || 'till-1';
+
+export const displayAPI = {
+  publishCart: (tillId, cartState) => api.put(`/display/tills/${encodeURIComponent(tillId)}/cart`, cartState),
+  eventsUrl: (tillId) =>
+    `${API_BASE_URL}/display/events${tillId ? `?till=${encodeURIComponent(tillId)}` : ''}`,
+};
+
 // Categories API
 export const categoriesAPI = {
   getAll: () => api.get('/categories'),
@@ -3,6 +3,18 @@
  * Uses hidden iframe instead of window.open to prevent popup blockers
  */
 
+/**
+ * Sale number for receipts. A sale accepted by the server's journal (HTTP 202) has no id until it
+ * reaches the database, so the start of its client sale id is shown instead.
+ * @param {Object} sale - Sale data
+ */
+export const saleReference = (sale) => {
+  if (sale.id != null) {
+    return sale.id;
+  }
+  return sale.clientSaleId ? sale.clientSaleId.slice(0, 8).toUpperCase() : '';
+};
+
 /**
  * Print receipt using raw ESC/POS (bypasses print spooler - no drawer interference)
  * @param {Object} sale - Sale data
@@ -16,7 +28,7 @@ export const printReceiptRaw = async (sale, companyName = "ADAMS GREEN", company
   // The IPC handler is just a passthrough, so we use the browser's native printing
   console.log('🖨️ Printing receipt using browser print (window.print)');
   const receiptContent = createReceiptHTML(sale, companyName, companyAddress, cashierName);
-  return directPrint(receiptContent, `Receipt - Sale #${sale.id}`);
+  return directPrint(receiptContent, `Receipt - Sale #${saleReference(sale)}`);
 };
 
 /**
@@ -198,7 +210,7 @@ export const createReceiptHTML = (sale, companyName = "ADAMS GREEN", companyAddr
     <!DOCTYPE html>
     <html>
     <head>
-      <title>Receipt - Sale #${sale.id}</title>
+      <title>Receipt - Sale #${saleReference(sale)}</title>
       <style>
         @media print {
           @page { 
@@ -249,7 +261,7 @@ export const createReceiptHTML = (sale, companyName = "ADAMS GREEN", companyAddr
         <div class="center">SALE RECEIPT</div>
         <div class="center">Date: ${formatReceiptDate(sale.saleDate)}</div>
         <div class="center">Time: ${new Date(sale.saleDate).toLocaleTimeString()}</div>
-        <div class="center">Sale ID: ${sale.id}</div>
+        <div class="center">Sale ID: ${saleReference(sale)}</div>
         <div class="center">Cashier: ${cashierName || sale.user?.username || 'Unknown'}</div>
       </div>
       
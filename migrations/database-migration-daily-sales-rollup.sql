@@ -0,0 +1,68 @@
+-- Migration to add the daily sales rollup used by daily reports
+-- Reports sum pre-aggregated rows per day, user, payment method, VAT rate and category instead of
+-- scanning every sale line in the range. The backend keeps the table up to date as sales are
+-- created, edited and deleted; this script creates it and back-fills it from existing sales.
+-- user_id and category_id use 0 for "no user" / "no category" so the key can be NOT NULL.
+
+-- ============================================
+-- 1. CREATE DAILY_SALES_ROLLUP TABLE (IF NOT EXISTS)
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS daily_sales_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    payment_method VARCHAR(10) NOT NULL,
+    vat_rate DECIMAL(5,2) NOT NULL,
+    category_id BIGINT NOT NULL,
+    sale_count BIGINT NOT NULL DEFAULT 0,
+    split_cash_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    split_card_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    gross_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    vat_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    net_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_daily_sales_rollup_key UNIQUE (rollup_date, user_id, payment_method, vat_rate, category_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_sales_rollup_user_date ON daily_sales_rollup(user_id, rollup_date);
+
+-- ============================================
+-- 2. BACK-FILL FROM EXISTING SALES
+-- ============================================
+
+-- Sale count and split payment parts are recorded once per sale, on the row of its first line
+-- (lowest sale_items id), the same way the backend does it
+BEGIN;
+
+DELETE FROM daily_sales_rollup;
+
+INSERT INTO daily_sales_rollup (rollup_date, user_id, payment_method, vat_rate, category_id,
+    sale_count, split_cash_amount, split_card_amount, quantity, gross_amount, vat_amount, net_amount)
+SELECT CAST(s.sale_date AS DATE), COALESCE(s.user_id, 0), s.payment_method, si.vat_rate, COALESCE(i.category_id, 0),
+    SUM(CASE WHEN si.line_number = 1 THEN 1 ELSE 0 END),
+    SUM(CASE WHEN si.line_number = 1 THEN COALESCE(sp.cash_amount, 0) ELSE 0 END),
+    SUM(CASE WHEN si.line_number = 1 THEN COALESCE(sp.card_amount, 0) ELSE 0 END),
+    SUM(si.quantity), SUM(si.total_price), SUM(si.vat_amount), SUM(si.price_excluding_vat)
+FROM sales s
+JOIN (SELECT sale_items.*, ROW_NUMBER() OVER (PARTITION BY sale_id ORDER BY id) AS line_number
+      FROM sale_items) si ON si.sale_id = s.id
+LEFT JOIN items i ON i.id = si.item_id
+LEFT JOIN (SELECT sale_id,
+           SUM(CASE WHEN payment_method = 'CASH' THEN amount ELSE 0 END) AS cash_amount,
+           SUM(CASE WHEN payment_method = 'CARD' THEN amount ELSE 0 END) AS card_amount
+           FROM sale_payments GROUP BY sale_id) sp ON sp.sale_id = s.id AND s.payment_method = 'SPLIT'
+GROUP BY CAST(s.sale_date AS DATE), COALESCE(s.user_id, 0), s.payment_method, si.vat_rate, COALESCE(i.category_id, 0);
+
+COMMIT;
+
+-- ============================================
+-- 3. VERIFICATION
+-- ============================================
+
+-- Rollup totals should match the sales table
+SELECT
+    (SELECT COUNT(*) FROM sales s WHERE EXISTS (SELECT 1 FROM sale_items si WHERE si.sale_id = s.id)) AS sales_with_lines,
+    (SELECT COALESCE(SUM(sale_count), 0) FROM daily_sales_rollup) AS rollup_sale_count,
+    (SELECT COALESCE(SUM(total_amount), 0) FROM sales) AS sales_total,
+    (SELECT COALESCE(SUM(gross_amount), 0) FROM daily_sales_rollup) AS rollup_total;
@@ -0,0 +1,17 @@
+-- Migration for catalogue delta sync
+-- GET /api/items/changes?since=<token> returns the items whose updated_at is after the token, plus the
+-- ids of items deleted since then. Deleted items leave a row in item_tombstones, which the backend
+-- prunes after 30 days; tills with an older token receive the full catalogue instead.
+
+CREATE TABLE IF NOT EXISTS item_tombstones (
+    item_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_tombstones_deleted_at ON item_tombstones(deleted_at);
+CREATE INDEX IF NOT EXISTS idx_items_updated_at ON items(updated_at);
+
+-- Verify the indexes exist
+SELECT tablename, indexname FROM pg_indexes
+WHERE indexname IN ('idx_item_tombstones_deleted_at', 'idx_items_updated_at')
+ORDER BY indexname;
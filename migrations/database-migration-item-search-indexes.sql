@@ -0,0 +1,16 @@
+-- Migration to add indexes for item search
+-- /api/items/search matches name, barcode and description anywhere in the text (ILIKE '%term%')
+-- using pg_trgm GIN indexes, ranks with similarity(), and returns a limited number of results.
+-- Terms shorter than three characters are matched as prefixes using text_pattern_ops indexes.
+-- pg_trgm ships with PostgreSQL (contrib) and is a trusted extension from PostgreSQL 13 onwards.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_barcode_trgm ON items USING gin (barcode gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (description gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_name_lower_prefix ON items (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_items_barcode_prefix ON items (barcode text_pattern_ops);
+
+-- Verify the indexes exist
+SELECT indexname FROM pg_indexes WHERE tablename = 'items' AND indexname LIKE 'idx_items_%' ORDER BY indexname;
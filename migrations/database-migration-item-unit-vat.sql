@@ -0,0 +1,17 @@
+-- Migration for the VAT split cached on items
+-- Each item stores the ex-VAT price and VAT of its shelf price, computed when the item is saved, so a
+-- checkout line sold at the shelf price takes its VAT figures from the item instead of dividing.
+-- Existing items are backfilled with the same rounding the backend uses: price / (1 + rate / 100),
+-- rounded half-up to the cent, with the VAT as the remainder.
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS unit_price_excluding_vat DECIMAL(10,2);
+ALTER TABLE items ADD COLUMN IF NOT EXISTS unit_vat_amount DECIMAL(10,2);
+
+UPDATE items
+SET unit_price_excluding_vat = ROUND(price / (1 + vat_rate / 100), 2),
+    unit_vat_amount = price - ROUND(price / (1 + vat_rate / 100), 2)
+WHERE unit_price_excluding_vat IS NULL OR unit_vat_amount IS NULL;
+
+-- Verify the columns exist
+SELECT column_name, data_type FROM information_schema.columns
+WHERE table_name = 'items' AND column_name IN ('unit_price_excluding_vat', 'unit_vat_amount');
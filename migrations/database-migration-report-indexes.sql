@@ -0,0 +1,6 @@
+-- Migration to support database-side daily report aggregates
+-- Daily reports are computed with GROUP BY queries over sales and sale_items filtered by
+-- sale_date (admin) or by user_id and sale_date (per-user). idx_sales_date already covers the
+-- admin queries; this adds the composite index used by the per-user ones.
+
+CREATE INDEX IF NOT EXISTS idx_sales_user_date ON sales(user_id, sale_date);
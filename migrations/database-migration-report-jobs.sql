@@ -0,0 +1,24 @@
+-- Migration for background report jobs
+-- POST /api/reports queues a daily report over a date range; the job and its finished report (as JSON)
+-- are kept in report_jobs so that asking for the same closed-period report again returns it at once.
+-- A change to a sale inside a job's range marks the job STALE.
+
+CREATE TABLE IF NOT EXISTS report_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(10) NOT NULL DEFAULT 'QUEUED' CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED', 'STALE')),
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    user_id BIGINT, -- NULL for reports over all users
+    requested_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    error VARCHAR(500),
+    result TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_report_jobs_range ON report_jobs(start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_report_jobs_requested_at ON report_jobs(requested_at);
+
+-- Verify the table exists
+SELECT table_name FROM information_schema.tables
+WHERE table_name = 'report_jobs';
@@ -0,0 +1,18 @@
+-- Migration for idempotent sale submission
+-- Tills send a client-generated UUID with each sale. The unique constraint is the dedupe store:
+-- a retried POST /api/sales, or a sale uploaded twice through POST /api/sales/batch, returns the
+-- sale already recorded instead of creating a second one and decrementing stock again.
+-- Existing sales keep NULL, which the unique constraint allows any number of.
+
+ALTER TABLE sales ADD COLUMN IF NOT EXISTS client_sale_id UUID;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_sales_client_sale_id') THEN
+        ALTER TABLE sales ADD CONSTRAINT uk_sales_client_sale_id UNIQUE (client_sale_id);
+    END IF;
+END $$;
+
+-- Verify the column exists
+SELECT column_name, data_type FROM information_schema.columns
+WHERE table_name = 'sales' AND column_name = 'client_sale_id';
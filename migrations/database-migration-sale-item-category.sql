@@ -0,0 +1,19 @@
+-- Migration for the category stored on sale lines
+-- Each sale line records the category its item was in when it was sold. The daily sales rollup and the
+-- category breakdown of reports key on it, so moving an item to another category (or deleting it, which
+-- sets sale_items.item_id to NULL) no longer changes where past sales are counted, and editing or deleting
+-- such a sale subtracts from the same rollup row it was added to.
+-- Existing lines are backfilled from their item's current category, which is what the rollup used so far.
+
+ALTER TABLE sale_items ADD COLUMN IF NOT EXISTS category_id BIGINT;
+
+UPDATE sale_items si
+SET category_id = i.category_id
+FROM items i
+WHERE i.id = si.item_id
+  AND si.category_id IS NULL
+  AND i.category_id IS NOT NULL;
+
+-- Verify the column exists
+SELECT column_name, data_type FROM information_schema.columns
+WHERE table_name = 'sale_items' AND column_name = 'category_id';
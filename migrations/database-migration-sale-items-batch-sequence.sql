@@ -0,0 +1,43 @@
+-- Migration to let checkout batch its sale_items inserts
+-- The SaleItem entity now takes ids from sale_items_id_seq in blocks of 50 (pooled sequence
+-- allocation) instead of an IDENTITY insert per line, so the sequence must step by 50.
+-- Run this BEFORE starting the updated backend: Hibernate refuses to start when the
+-- sequence increment does not match the entity's allocation size.
+
+-- ============================================
+-- 1. SET SALE_ITEMS ID SEQUENCE INCREMENT TO 50
+-- ============================================
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_schema = 'public'
+        AND table_name = 'sale_items'
+        AND column_name = 'id'
+        AND is_identity = 'YES'
+    ) THEN
+        -- Tables created by Hibernate use an identity column
+        ALTER TABLE sale_items ALTER COLUMN id SET INCREMENT BY 50;
+    ELSE
+        -- Tables created by database-setup.sql use BIGSERIAL
+        ALTER SEQUENCE sale_items_id_seq INCREMENT BY 50;
+    END IF;
+END $$;
+
+-- ============================================
+-- 2. VERIFICATION
+-- ============================================
+
+DO $$
+DECLARE
+    seq_increment BIGINT;
+BEGIN
+    SELECT increment_by INTO seq_increment FROM pg_sequences WHERE sequencename = 'sale_items_id_seq';
+    IF seq_increment = 50 THEN
+        RAISE NOTICE '✓ sale_items_id_seq now increments by 50';
+    ELSE
+        RAISE WARNING '✗ sale_items_id_seq increments by %, expected 50', seq_increment;
+    END IF;
+END $$;
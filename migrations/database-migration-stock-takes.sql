@@ -0,0 +1,41 @@
+-- Migration for stock-take sessions
+-- Counted quantities are uploaded by barcode into stock_take_counts together with each item's stock at
+-- the time (system_quantity). Applying a stock take moves every counted item by counted - system
+-- quantity in one statement and logs each change in stock_adjustments.
+
+CREATE TABLE IF NOT EXISTS stock_takes (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'OPEN' CHECK (status IN ('OPEN', 'APPLIED', 'CANCELLED')),
+    user_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    closed_at TIMESTAMP,
+    adjusted_items INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS stock_take_counts (
+    id BIGSERIAL PRIMARY KEY,
+    stock_take_id BIGINT NOT NULL REFERENCES stock_takes(id) ON DELETE CASCADE,
+    barcode VARCHAR(255) NOT NULL,
+    counted_quantity INTEGER NOT NULL,
+    system_quantity INTEGER, -- NULL when no item has the barcode
+    counted_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_stock_take_counts_barcode UNIQUE (stock_take_id, barcode)
+);
+
+CREATE TABLE IF NOT EXISTS stock_adjustments (
+    id BIGSERIAL PRIMARY KEY,
+    stock_take_id BIGINT REFERENCES stock_takes(id) ON DELETE SET NULL,
+    item_id BIGINT NOT NULL,
+    adjustment INTEGER NOT NULL,
+    new_quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_adjustments_stock_take_id ON stock_adjustments(stock_take_id);
+CREATE INDEX IF NOT EXISTS idx_stock_adjustments_item_id ON stock_adjustments(item_id);
+
+-- Verify the tables exist
+SELECT table_name FROM information_schema.tables
+WHERE table_name IN ('stock_takes', 'stock_take_counts', 'stock_adjustments')
+ORDER BY table_name;
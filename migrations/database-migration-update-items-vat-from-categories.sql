@@ -75,6 +75,17 @@ BEGIN
     
     GET DIAGNOSTICS updated_count = ROW_COUNT;
     
+    -- Items cache the VAT split of their shelf price (database-migration-item-unit-vat.sql), which
+    -- checkout reuses; refresh it for the new rates, with the backend's rounding
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'items' AND column_name = 'unit_price_excluding_vat') THEN
+        EXECUTE 'UPDATE items
+                 SET unit_price_excluding_vat = ROUND(price / (1 + vat_rate / 100), 2),
+                     unit_vat_amount = price - ROUND(price / (1 + vat_rate / 100), 2)
+                 WHERE unit_price_excluding_vat IS DISTINCT FROM ROUND(price / (1 + vat_rate / 100), 2)
+                    OR unit_vat_amount IS DISTINCT FROM price - ROUND(price / (1 + vat_rate / 100), 2)';
+    END IF;
+    
     RAISE NOTICE '============================================';
     RAISE NOTICE 'Update Results';
     RAISE NOTICE '============================================';